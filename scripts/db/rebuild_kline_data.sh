@@ -0,0 +1,63 @@
+#!/usr/bin/env bash
+# Converts an existing (unpartitioned) kline_data table to the layout of db/migration/V1__create_kline_data.sql:
+# PRIMARY KEY (symbol, open_time), range-partitioned by month of open_time (UTC).
+#
+# Runs online with pt-online-schema-change: rows are copied in small chunks into a shadow table while triggers
+# replay concurrent writes (e.g. from instances of a rolling deploy), then both tables are swapped with an atomic
+# RENAME. Needs free disk space for one more copy of the table while it runs.
+#
+# Dry run by default; set EXECUTE=1 to apply. Connection settings come from the environment:
+#   MYSQL_HOST (localhost) MYSQL_PORT (3306) MYSQL_USER (root) MYSQL_PASSWORD MYSQL_DATABASE (market_service)
+#   MONTHS_AHEAD (3)   partitions created beyond the current month, the rest is kept up by KlineDataPartitionService
+#   KEEP_OLD_TABLE (0) set to 1 to keep the unpartitioned copy as _kline_data_old for rollback
+set -euo pipefail
+
+MYSQL_HOST=${MYSQL_HOST:-localhost}
+MYSQL_PORT=${MYSQL_PORT:-3306}
+MYSQL_USER=${MYSQL_USER:-root}
+MYSQL_DATABASE=${MYSQL_DATABASE:-market_service}
+MONTHS_AHEAD=${MONTHS_AHEAD:-3}
+
+# pYYYYMM partitions from 2017-07 (p201707 also holds anything older) up to MONTHS_AHEAD months from now
+partitions=""
+month="2017-07-01"
+last=$(date -u -d "$(date -u +%Y-%m-01) +${MONTHS_AHEAD} month" +%Y-%m-01)
+while [[ ! "$month" > "$last" ]]; do
+  next=$(date -u -d "$month +1 month" +%Y-%m-01)
+  partitions+="PARTITION p$(date -u -d "$month" +%Y%m) VALUES LESS THAN ($(date -u -d "$next" +%s)000), "
+  month=$next
+done
+partitions+="PARTITION pmax VALUES LESS THAN MAXVALUE"
+
+mode=--dry-run
+if [[ "${EXECUTE:-0}" == 1 ]]; then
+  mode=--execute
+fi
+drop_old=--drop-old-table
+if [[ "${KEEP_OLD_TABLE:-0}" == 1 ]]; then
+  drop_old=--no-drop-old-table
+fi
+
+sql() {
+  MYSQL_PWD=${MYSQL_PASSWORD:-} mysql -h "$MYSQL_HOST" -P "$MYSQL_PORT" -u "$MYSQL_USER" --batch --skip-column-names "$@"
+}
+
+# --no-check-alter below is only safe when the new primary key covers exactly the columns of the current one:
+# with any other key, rows sharing (symbol, open_time) would be dropped silently during the copy
+primary_key=$(sql -e "SELECT GROUP_CONCAT(column_name ORDER BY column_name) FROM information_schema.statistics
+  WHERE table_schema = '${MYSQL_DATABASE}' AND table_name = 'kline_data' AND index_name = 'PRIMARY'")
+if [[ "$primary_key" != "open_time,symbol" ]]; then
+  echo "kline_data primary key is (${primary_key:-none}), expected the columns {open_time, symbol}; aborting." >&2
+  echo "Deduplicate on (symbol, open_time) and rebuild without --no-check-alter instead." >&2
+  exit 1
+fi
+
+pt-online-schema-change \
+  "h=${MYSQL_HOST},P=${MYSQL_PORT},u=${MYSQL_USER},p=${MYSQL_PASSWORD:-},D=${MYSQL_DATABASE},t=kline_data" \
+  --alter "DROP PRIMARY KEY, ADD PRIMARY KEY (symbol, open_time) PARTITION BY RANGE (open_time) (${partitions})" \
+  --no-check-alter \
+  --chunk-time 0.5 \
+  --max-load Threads_running=50 \
+  --critical-load Threads_running=200 \
+  "$drop_old" \
+  "$mode"
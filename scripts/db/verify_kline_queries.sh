@@ -0,0 +1,100 @@
+#!/usr/bin/env bash
+# Checks the query plans and latency of the kline_data queries of KlineDataMapper at production scale.
+#
+# Against a scratch database (never point this at production with SEED_ROWS set) it can first create kline_data with
+# db/migration/V1__create_kline_data.sql and seed SEED_ROWS synthetic 1m candles spread over SEED_SYMBOLS symbols.
+# It then prints EXPLAIN (the partitions column must only list the months of the range, type must be range on
+# PRIMARY) and EXPLAIN ANALYZE of findByPrimaryKey and aggregateByInterval, and the wall-clock latency of RUNS
+# executions of each over 1 day, 30 days and 365 days (including mysql client start-up, roughly 10 ms).
+#
+#   MYSQL_HOST (localhost) MYSQL_PORT (3306) MYSQL_USER (root) MYSQL_PASSWORD MYSQL_DATABASE (kline_verify)
+#   SEED_ROWS (0)          e.g. 100000000 for the 100M row check; 0 uses the existing data
+#   SEED_SYMBOLS (100)     symbols are named SYM0000, SYM0001, ...
+#   SYMBOL (SYM0000)       symbol queried; use a real one when SEED_ROWS=0
+#   END_TIME (now)         end of the queried ranges in ms; with seeded data, the end of the seeded range
+#   RUNS (20)
+set -euo pipefail
+
+MYSQL_HOST=${MYSQL_HOST:-localhost}
+MYSQL_PORT=${MYSQL_PORT:-3306}
+MYSQL_USER=${MYSQL_USER:-root}
+MYSQL_DATABASE=${MYSQL_DATABASE:-kline_verify}
+SEED_ROWS=${SEED_ROWS:-0}
+SEED_SYMBOLS=${SEED_SYMBOLS:-100}
+SYMBOL=${SYMBOL:-SYM0000}
+RUNS=${RUNS:-20}
+MINUTE=60000
+DAY=86400000
+CHUNK=100000
+
+sql() {
+  MYSQL_PWD=${MYSQL_PASSWORD:-} mysql -h "$MYSQL_HOST" -P "$MYSQL_PORT" -u "$MYSQL_USER" --batch "$@"
+}
+
+if (( SEED_ROWS > 0 )); then
+  rows_per_symbol=$(( SEED_ROWS / SEED_SYMBOLS ))
+  # seeded candles end at the last full day before now
+  END_TIME=${END_TIME:-$(( $(date -u +%s) / 86400 * DAY ))}
+  seed_start=$(( END_TIME - rows_per_symbol * MINUTE ))
+  sql -e "CREATE DATABASE IF NOT EXISTS ${MYSQL_DATABASE}"
+  sql "$MYSQL_DATABASE" < "$(dirname "$0")/../../src/main/resources/db/migration/V1__create_kline_data.sql"
+  for (( s = 0; s < SEED_SYMBOLS; s++ )); do
+    symbol=$(printf 'SYM%04d' "$s")
+    for (( offset = 0; offset < rows_per_symbol; offset += CHUNK )); do
+      count=$(( rows_per_symbol - offset < CHUNK ? rows_per_symbol - offset : CHUNK ))
+      sql "$MYSQL_DATABASE" -e "
+        SET SESSION cte_max_recursion_depth = ${CHUNK};
+        INSERT IGNORE INTO kline_data (open_time, close_time, symbol, open_price, high_price, low_price, close_price,
+                                       volume, quote_asset_volume, number_of_trades, taker_buy_base_volume, taker_buy_quote_volume)
+        WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < ${count} - 1)
+        SELECT t, t + ${MINUTE} - 1, '${symbol}', p, p + 1, p - 1, p + 0.5, 10, 10 * p, 100, 5, 5 * p
+        FROM (SELECT ${seed_start} + (${offset} + n) * ${MINUTE} AS t, 100 + MOD(n, 1000) / 100 AS p FROM seq) s"
+    done
+    echo "seeded ${symbol}: ${rows_per_symbol} rows"
+  done
+  sql "$MYSQL_DATABASE" -e "ANALYZE TABLE kline_data"
+fi
+END_TIME=${END_TIME:-$(( $(date -u +%s) / 60 * MINUTE ))}
+
+find_query() {
+  echo "SELECT * FROM kline_data WHERE symbol = '${SYMBOL}' AND open_time BETWEEN $1 AND $2 AND close_time <= $2 ORDER BY open_time"
+}
+
+aggregate_query() {
+  local bucket=$3
+  echo "SELECT bucket AS open_time, MAX(close_time) AS close_time, symbol,
+    MAX(first_open_price) AS open_price, MAX(high_price) AS high_price, MIN(low_price) AS low_price,
+    MAX(last_close_price) AS close_price, SUM(volume) AS volume, SUM(quote_asset_volume) AS quote_asset_volume,
+    SUM(number_of_trades) AS number_of_trades, SUM(taker_buy_base_volume) AS taker_buy_base_volume,
+    SUM(taker_buy_quote_volume) AS taker_buy_quote_volume
+    FROM (SELECT k.*, k.open_time - MOD(k.open_time, ${bucket}) AS bucket,
+      FIRST_VALUE(k.open_price) OVER w AS first_open_price, LAST_VALUE(k.close_price) OVER w AS last_close_price
+      FROM kline_data k
+      WHERE k.symbol = '${SYMBOL}' AND k.open_time BETWEEN $1 AND $2 AND k.close_time <= $2
+      WINDOW w AS (PARTITION BY k.open_time - MOD(k.open_time, ${bucket}) ORDER BY k.open_time
+                   ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING)) t
+    GROUP BY bucket, symbol ORDER BY bucket"
+}
+
+latency() {
+  local label=$1 query=$2 times=()
+  for (( run = 0; run < RUNS; run++ )); do
+    local start=$(date +%s%N)
+    sql "$MYSQL_DATABASE" -e "$query" > /dev/null
+    times+=($(( ($(date +%s%N) - start) / 1000000 )))
+  done
+  local sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+  printf '%-28s min=%d ms median=%d ms max=%d ms\n' "$label" "${sorted[0]}" "${sorted[$(( RUNS / 2 ))]}" "${sorted[$(( RUNS - 1 ))]}"
+}
+
+echo "rows in kline_data: $(sql "$MYSQL_DATABASE" --skip-column-names -e 'SELECT COUNT(*) FROM kline_data')"
+for days in 1 30 365; do
+  start=$(( END_TIME - days * DAY ))
+  echo "=== ${days} day(s) of ${SYMBOL}"
+  sql "$MYSQL_DATABASE" --table -e "EXPLAIN $(find_query "$start" "$END_TIME")"
+  sql "$MYSQL_DATABASE" -e "EXPLAIN ANALYZE $(find_query "$start" "$END_TIME")"
+  sql "$MYSQL_DATABASE" --table -e "EXPLAIN $(aggregate_query "$start" "$END_TIME" "$DAY")"
+  sql "$MYSQL_DATABASE" -e "EXPLAIN ANALYZE $(aggregate_query "$start" "$END_TIME" "$DAY")"
+  latency "findByPrimaryKey ${days}d" "$(find_query "$start" "$END_TIME")"
+  latency "aggregateByInterval ${days}d 1d" "$(aggregate_query "$start" "$END_TIME" "$DAY")"
+done
@@ -0,0 +1,123 @@
+#!/usr/bin/env bash
+# Compares time to ready and first-request latency of the packaged application started plain, with Spring AOT, and
+# with Spring AOT plus a CDS archive, each with the startup warm-up (CacheWarmUpService) off and on.
+#
+# Runs offline like KlineDataLoadTest: H2 in MySQL mode, jedis-mock and the stub exchange of the load test, the
+# latter two in a separate LocalBackends process. H2 is file-based and seeded once with the last SEED_HOURS hours of
+# 1m candles of BTCUSDT, like a database kept current by ingestion. Every run flushes Redis, starts a fresh
+# application, waits for the "Application ready" log line, then times two GET /klinedata of the last 12 seeded hours.
+# That range lies inside the warm-up window (warmup.hours=24), so with warm-up on the first GET should be served from
+# Redis, and with warm-up off it takes the cold path: symbol list from the exchange, database, cache fill.
+#
+# Build first: ./mvnw -Pfast-start package -DskipTests && ./mvnw test-compile
+#
+#   RUNS (3)        rounds; each round starts every mode once
+#   WORK_DIR        scratch directory for the extracted jar, the H2 database, the CDS archive and logs (a new temp
+#                   directory)
+#   SEED_HOURS (30) REDIS_PORT (6399) APP_PORT (18080)
+set -euo pipefail
+
+ROOT=$(cd "$(dirname "$0")/../.." && pwd)
+RUNS=${RUNS:-3}
+WORK_DIR=${WORK_DIR:-$(mktemp -d)}
+SEED_HOURS=${SEED_HOURS:-30}
+REDIS_PORT=${REDIS_PORT:-6399}
+APP_PORT=${APP_PORT:-18080}
+JAR=MyTradingApp-0.0.1-SNAPSHOT.jar
+HOUR=3600000
+
+cd "$ROOT"
+./mvnw -B -q dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile="$WORK_DIR/classpath.txt" > /dev/null
+test_classpath=target/test-classes:target/classes:$(cat "$WORK_DIR/classpath.txt")
+h2_jar=$(tr ':' '\n' < "$WORK_DIR/classpath.txt" | grep '/h2-')
+
+java -cp "$test_classpath" com.example.myapp.loadtest.LocalBackends "$REDIS_PORT" BTCUSDT ETHUSDT > "$WORK_DIR/backends.log" 2>&1 &
+backends=$!
+trap 'kill $backends 2> /dev/null' EXIT
+until grep -qs '^ticker=' "$WORK_DIR/backends.log"; do sleep 0.5; done
+
+rm -rf "$WORK_DIR/application" "$WORK_DIR/h2"
+java -Djarmode=tools -jar "target/$JAR" extract --destination "$WORK_DIR/application" > /dev/null
+
+start_app() {
+  # AOT fixes @ConditionalOnProperty at build time, so spring.flyway.enabled=false from the loadtest properties does
+  # not apply and Flyway is pointed at an empty location instead of the MySQL migrations
+  mkdir -p "$WORK_DIR/no-migrations"
+  exec java "$@" -cp "$WORK_DIR/application/$JAR:$h2_jar" com.example.myapp.MyappApplication \
+    --spring.config.additional-location="file:$ROOT/src/test/resources/application-loadtest.properties" \
+    --spring.datasource.url="jdbc:h2:file:$WORK_DIR/h2/kline;MODE=MySQL;DATABASE_TO_LOWER=TRUE" \
+    --spring.sql.init.schema-locations="file:$ROOT/src/test/resources/loadtest-schema.sql" \
+    --spring.flyway.locations="filesystem:$WORK_DIR/no-migrations" \
+    --spring.data.redis.port="$REDIS_PORT" \
+    --binance.klineApi.url.template="$(sed -n 's/^kline=//p' "$WORK_DIR/backends.log")" \
+    --binance.livePrice.url="$(sed -n 's/^ticker=//p' "$WORK_DIR/backends.log")" \
+    --server.port="$APP_PORT" \
+    --warmup.symbols=BTCUSDT \
+    --warmup.hours=24 \
+    "${APP_ARGS[@]}"
+}
+
+# starts the application in the background and waits until it is ready; sets app and log
+start_ready() {
+  local name=$1
+  shift
+  log="$WORK_DIR/$name.log"
+  start_app "$@" > "$log" 2>&1 &
+  app=$!
+  until grep -qs 'Application ready in' "$log"; do
+    if ! kill -0 $app 2> /dev/null; then
+      echo "$name failed to start, see $log" >&2
+      exit 1
+    fi
+    sleep 0.2
+  done
+}
+
+stop_app() {
+  kill $app
+  wait $app 2> /dev/null || true
+}
+
+flush_redis() {
+  exec 3<> "/dev/tcp/127.0.0.1/$REDIS_PORT"
+  printf '*1\r\n$8\r\nFLUSHALL\r\n' >&3
+  read -r _ <&3
+  exec 3>&-
+}
+
+timed() {
+  curl -s -o /dev/null -w '%{http_code}/%{time_total}s' "$@"
+}
+
+seed_end=$(( $(date -u +%s) / 3600 * HOUR ))
+query="exchangeName=Binance&symbol=BTCUSDT&startTime=$(( seed_end - 12 * HOUR ))&endTime=$seed_end&interval=1h"
+
+APP_ARGS=(--warmup.enabled=false)
+start_ready seed
+timed -X POST "http://127.0.0.1:$APP_PORT/klinedata?exchangeName=Binance&symbol=BTCUSDT&startTime=$(( seed_end - SEED_HOURS * HOUR ))&endTime=$seed_end" > /dev/null
+stop_app
+
+# training run for the CDS archive: refreshes the context and exits
+(start_app -XX:ArchiveClassesAtExit="$WORK_DIR/app.jsa" -Dspring.context.exit=onRefresh -Dspring.aot.enabled=true) \
+  > "$WORK_DIR/cds-training.log" 2>&1
+
+measure() {
+  local mode=$1 warmup=$2 run=$3
+  shift 3
+  flush_redis
+  APP_ARGS=(--warmup.enabled="$warmup")
+  start_ready "$mode-warmup-$warmup-$run" "$@"
+  local get=$(timed "http://127.0.0.1:$APP_PORT/klinedata?$query")
+  local get2=$(timed "http://127.0.0.1:$APP_PORT/klinedata?$query")
+  printf '%-8s warmup=%-5s run=%d ready=%sms first_get=%s second_get=%s\n' "$mode" "$warmup" "$run" \
+    "$(sed -n 's/.*Application ready in \([0-9]*\) ms.*/\1/p' "$log")" "$get" "$get2"
+  stop_app
+}
+
+for run in $(seq 1 "$RUNS"); do
+  for warmup in false true; do
+    measure plain "$warmup" "$run"
+    measure aot "$warmup" "$run" -Dspring.aot.enabled=true
+    measure aot-cds "$warmup" "$run" -XX:SharedArchiveFile="$WORK_DIR/app.jsa" -Dspring.aot.enabled=true
+  done
+done
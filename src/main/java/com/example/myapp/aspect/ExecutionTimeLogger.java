@@ -21,7 +21,8 @@ public class ExecutionTimeLogger {
      * @throws Throwable if the target method throws an exception, it will be propagated
      */
     @Around("execution(* com.example.myapp.service.KlineDataLoadService.*LoadData(..)) ||" +
-            "execution(* com.example.myapp.service.KlineDataRetrieveService.*(..))"
+            "execution(* com.example.myapp.service.KlineDataRetrieveService.*(..)) ||" +
+            "execution(* com.example.myapp.service.KlineDataAnalyticsService.*(..))"
     )
     public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable{
         String methodName = joinPoint.getSignature().getName();
@@ -0,0 +1,54 @@
+package com.example.myapp.config;
+
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.mybatis.spring.mapper.MapperScannerConfigurer;
+import org.springframework.beans.factory.aot.BeanRegistrationExcludeFilter;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+
+/**
+ * Lets the MyBatis mapper beans survive Spring AOT processing ({@code mvn -Pfast-start package}).
+ * <p>
+ * The mapper scanner registers one {@link MapperFactoryBean} per {@code @Mapper} interface with the interface name
+ * as an untyped constructor argument, which the generated code cannot use. {@link MapperFactoryBeanTypeResolver}
+ * turns it into a typed argument before the code is generated, and {@link MapperScannerExcludeFilter} keeps the
+ * scanner itself out of the generated context, since it would register the same mappers again at startup. Without
+ * AOT both are no-ops.
+ * </p>
+ */
+@Configuration
+public class MyBatisAotConfig {
+
+    @Bean
+    public static MapperFactoryBeanTypeResolver mapperFactoryBeanTypeResolver() {
+        return new MapperFactoryBeanTypeResolver();
+    }
+
+    static class MapperFactoryBeanTypeResolver implements MergedBeanDefinitionPostProcessor {
+
+        @Override
+        public void postProcessMergedBeanDefinition(RootBeanDefinition beanDefinition, Class<?> beanType, String beanName) {
+            if (!MapperFactoryBean.class.isAssignableFrom(beanType)
+                    || !(beanDefinition.getPropertyValues().get("mapperInterface") instanceof Class<?> mapperInterface)) {
+                return;
+            }
+            ConstructorArgumentValues constructorArgumentValues = new ConstructorArgumentValues();
+            constructorArgumentValues.addIndexedArgumentValue(0, mapperInterface);
+            beanDefinition.setConstructorArgumentValues(constructorArgumentValues);
+            beanDefinition.setTargetType(ResolvableType.forClassWithGenerics(MapperFactoryBean.class, mapperInterface));
+        }
+    }
+
+    static class MapperScannerExcludeFilter implements BeanRegistrationExcludeFilter {
+
+        @Override
+        public boolean isExcludedFromAotProcessing(RegisteredBean registeredBean) {
+            return MapperScannerConfigurer.class.isAssignableFrom(registeredBean.getBeanClass());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.myapp.controller;
+import com.example.myapp.entity.CorrelationMatrix;
+import com.example.myapp.entity.ReturnMatrix;
+import com.example.myapp.service.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+public class AnalyticsController {
+    @Autowired
+    private InputValidationService inputValidationService;
+
+    @Autowired
+    private KlineDataAnalyticsService klineDataAnalyticsService;
+
+    @Autowired
+    private Map<String, KlineDataSourceService> exchangeServiceFactory;
+
+    /**
+     * Handles GET requests for the log return matrix of several symbols.
+     * <p>
+     * This method validates the input parameters and aligns the close series of the given symbols on a common
+     * grid of the given interval before computing their log returns. Requests whose grid points x symbols exceed
+     * {@code analytics.maxReturns} are rejected before any candles are loaded.
+     * </p>
+     *
+     * @param exchangeName the name of the exchange
+     * @param symbols      the trading symbols, comma separated
+     * @param startTime    the start time of the grid (in milliseconds)
+     * @param endTime      the end time of the grid (in milliseconds)
+     * @param interval     the grid interval
+     * @return the log returns of every symbol on the grid
+     */
+    @GetMapping("/analytics/returns")
+    public ReturnMatrix retrieveReturnMatrix(
+            @RequestParam String exchangeName,
+            @RequestParam List<String> symbols,
+            @RequestParam Long startTime,
+            @RequestParam Long endTime,
+            @RequestParam String interval) {
+        List<String> distinctSymbols = checkSymbols(exchangeName, symbols, startTime, endTime);
+        inputValidationService.checkReturnMatrixSize(
+                klineDataAnalyticsService.countGridPoints(startTime, endTime, interval), distinctSymbols.size());
+        return klineDataAnalyticsService.buildReturnMatrix(startTime, endTime, distinctSymbols, interval);
+    }
+
+    /**
+     * Handles GET requests for rolling covariance and correlation matrices of several symbols.
+     * <p>
+     * This method validates the input parameters and computes the covariance and correlation of the symbols'
+     * log returns over windows of {@code window} grid points, one window every {@code step} grid points.
+     * Requests whose windows x symbols x symbols exceed {@code analytics.maxCells}, or whose return matrix of grid
+     * points x symbols exceeds {@code analytics.maxReturns}, are rejected before any candles are loaded.
+     * </p>
+     *
+     * @param exchangeName the name of the exchange
+     * @param symbols      the trading symbols, comma separated
+     * @param startTime    the start time of the grid (in milliseconds)
+     * @param endTime      the end time of the grid (in milliseconds)
+     * @param interval     the grid interval
+     * @param window       the number of returns per window
+     * @param step         the number of grid points between consecutive windows; defaults to {@code window}
+     * @return the covariance and correlation matrices of every window
+     */
+    @GetMapping("/analytics/correlation")
+    public List<CorrelationMatrix> retrieveRollingCorrelation(
+            @RequestParam String exchangeName,
+            @RequestParam List<String> symbols,
+            @RequestParam Long startTime,
+            @RequestParam Long endTime,
+            @RequestParam String interval,
+            @RequestParam Integer window,
+            @RequestParam(required = false) Integer step) {
+        int windowStep = step == null ? window : step;
+        inputValidationService.checkWindow(window, windowStep);
+        List<String> distinctSymbols = checkSymbols(exchangeName, symbols, startTime, endTime);
+        inputValidationService.checkReturnMatrixSize(
+                klineDataAnalyticsService.countGridPoints(startTime, endTime, interval), distinctSymbols.size());
+        inputValidationService.checkCorrelationSize(
+                klineDataAnalyticsService.countWindows(startTime, endTime, interval, window, windowStep), distinctSymbols.size());
+        return klineDataAnalyticsService.computeRollingCorrelation(startTime, endTime, distinctSymbols, interval, window, windowStep);
+    }
+
+    private List<String> checkSymbols(String exchangeName, List<String> symbols, Long startTime, Long endTime) {
+        KlineDataSourceService exchangeService = exchangeServiceFactory.get(exchangeName);
+        inputValidationService.checkDataRange(startTime, endTime);
+        List<String> distinctSymbols = symbols.stream().distinct().toList();
+        for (String symbol : distinctSymbols) {
+            inputValidationService.checkSymbol(symbol, exchangeService);
+        }
+        return distinctSymbols;
+    }
+}
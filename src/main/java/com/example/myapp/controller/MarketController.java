@@ -1,5 +1,6 @@
 package com.example.myapp.controller;
 import com.example.myapp.entity.KlineData;
+import com.example.myapp.enums.DownsampleMethod;
 import com.example.myapp.service.*;
 import jakarta.validation.constraints.NotEmpty;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -60,6 +61,8 @@ public class MarketController {
      * @param startTime    the start time for data retrieval (in milliseconds)
      * @param endTime      the end time for data retrieval (in milliseconds)
      * @param interval     the data interval
+     * @param maxPoints    the maximum number of candles to return; optional, no downsampling when absent
+     * @param downsampleMethod the downsampling method applied when {@code maxPoints} is exceeded ("lttb" or "minmax")
      * @return
      */
     @GetMapping("/klinedata")
@@ -68,13 +71,20 @@ public class MarketController {
             @RequestParam String symbol,
             @RequestParam Long startTime,
             @RequestParam Long endTime,
-            @RequestParam String interval
+            @RequestParam String interval,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(defaultValue = "lttb") String downsampleMethod
     ) {
         KlineDataSourceService exchangeService = exchangeServiceFactory.get(exchangeName);
         inputValidationService.checkDataRange(startTime, endTime);
         inputValidationService.checkSymbol(symbol, exchangeService);
-        List<KlineData> dataList =  klineDataRetrieveService.retrieveData(startTime,  endTime,  symbol);
-        return klineDataRetrieveService.aggregation(dataList, interval);
+        inputValidationService.checkMaxPoints(maxPoints);
+        DownsampleMethod method = DownsampleMethod.fromLabel(downsampleMethod);
+        List<KlineData> dataList = klineDataRetrieveService.retrieveAggregatedData(startTime, endTime, symbol, interval);
+        if (maxPoints == null) {
+            return dataList;
+        }
+        return klineDataRetrieveService.downsample(dataList, maxPoints, method);
     }
 
 }
@@ -0,0 +1,27 @@
+package com.example.myapp.entity;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Covariance and correlation of the log returns of several symbols over one window.
+ * <p>
+ * The window covers the price moves between the grid points opening at {@code windowStart} and {@code windowEnd}.
+ * {@code covariance[i][j]} and {@code correlation[i][j]} refer to {@code symbols.get(i)} and {@code symbols.get(j)};
+ * pairs with fewer than two common returns in the window are {@code NaN}.
+ * </p>
+ */
+@Data
+public class CorrelationMatrix {
+
+    private List<String> symbols;
+
+    private Long windowStart;
+
+    private Long windowEnd;
+
+    private double[][] covariance;
+
+    private double[][] correlation;
+}
@@ -0,0 +1,34 @@
+package com.example.myapp.entity;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Persisted ingestion progress for one (exchange, symbol, interval) series.
+ * <p>
+ * {@code highWaterMark} is the open time of the next candle that still has to be fetched,
+ * i.e. every candle with an open time below it has already been loaded.
+ * </p>
+ */
+@Validated
+@Data
+public class IngestionWatermark {
+
+    @NotEmpty
+    private String exchangeName;
+
+    @NotEmpty
+    private String symbol;
+
+    @NotEmpty
+    private String intervalLabel;
+
+    @NotNull @Min(0)
+    private Long highWaterMark;
+
+    @NotNull @Min(0)
+    private Long updatedAt;
+}
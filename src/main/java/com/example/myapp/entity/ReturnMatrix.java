@@ -0,0 +1,23 @@
+package com.example.myapp.entity;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Log returns of several symbols aligned on a common interval grid.
+ * <p>
+ * {@code returns[i][t]} is the log return of {@code symbols.get(i)} from grid point {@code t - 1} to {@code t},
+ * where {@code openTimes[t]} is the open time of grid point {@code t}. Entries without a preceding close,
+ * including every entry of the first grid point, are {@code NaN}.
+ * </p>
+ */
+@Data
+public class ReturnMatrix {
+
+    private List<String> symbols;
+
+    private long[] openTimes;
+
+    private double[][] returns;
+}
@@ -0,0 +1,32 @@
+package com.example.myapp.enums;
+/**
+ * Enumeration representing the supported downsampling methods for Kline data.
+ * <p>
+ * {@code LTTB} keeps the candles selected by largest-triangle-three-buckets on the close price, {@code MIN_MAX}
+ * merges consecutive candles so that the open/high/low/close envelope of every bucket is preserved.
+ * </p>
+ */
+public enum DownsampleMethod {
+    LTTB("lttb"),
+    MIN_MAX("minmax");
+
+    private final String label;
+
+    DownsampleMethod(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+
+    public static DownsampleMethod fromLabel(String label) {
+        for (DownsampleMethod method : values()) {
+            if (method.label.equals(label)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported downsample method: " + label);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.myapp.mapper;
+
+import com.example.myapp.entity.IngestionWatermark;
+import org.apache.ibatis.annotations.*;
+/**
+ * Mapper interface for operations on the {@code ingestion_watermark} table.
+ */
+@Mapper
+public interface IngestionWatermarkMapper {
+    /**
+     * Retrieves the watermark of a single (exchange, symbol, interval) series.
+     *
+     * @param exchangeName  the name of the exchange; must not be null
+     * @param symbol        the trading symbol; must not be null
+     * @param intervalLabel the candle interval label (e.g. "1m"); must not be null
+     * @return the stored {@link IngestionWatermark}, or {@code null} if the series has never been ingested
+     */
+    @Select("SELECT * FROM ingestion_watermark WHERE exchange_name = #{exchangeName} AND symbol = #{symbol} AND interval_label = #{intervalLabel}")
+    IngestionWatermark findWatermark(@Param("exchangeName") String exchangeName, @Param("symbol") String symbol, @Param("intervalLabel") String intervalLabel);
+
+    /**
+     * Inserts the watermark of a series, or moves it forward if the series is already tracked.
+     * <p>
+     * The stored mark never moves backwards, so a replica writing an older mark cannot undo the progress of another.
+     * </p>
+     *
+     * @param watermark the {@link IngestionWatermark} to store; must not be null
+     */
+    @Insert("INSERT INTO ingestion_watermark (exchange_name, symbol, interval_label, high_water_mark, updated_at) " +
+            "VALUES (#{exchangeName}, #{symbol}, #{intervalLabel}, #{highWaterMark}, #{updatedAt}) " +
+            "ON DUPLICATE KEY UPDATE high_water_mark = GREATEST(high_water_mark, VALUES(high_water_mark)), updated_at = VALUES(updated_at)")
+    void upsertWatermark(IngestionWatermark watermark);
+}
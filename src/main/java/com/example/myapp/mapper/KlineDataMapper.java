@@ -41,6 +41,10 @@ public interface KlineDataMapper {
      * <p>
      * The method queries records where the open time is greater than or equal to {@code openTime}
      * and the close time is less than or equal to {@code closeTime} for the specified symbol.
+     * Since a candle always closes after it opens, the redundant upper bound on {@code open_time} turns the
+     * lookup into a range scan on the {@code (symbol, open_time)} primary key and lets MySQL prune the monthly
+     * partitions outside the range; {@code close_time} is only checked on the rows of that range.
+     * Results are ordered by open time.
      * </p>
      *
      * @param openTime the lower bound of the open time (inclusive) in milliseconds; must not be null
@@ -48,8 +52,9 @@ public interface KlineDataMapper {
      * @param symbol the trading symbol for which the data is to be retrieved; must not be null
      * @return a list of {@link KlineData} records matching the criteria
      */
-    @Select("SELECT * FROM kline_data WHERE open_time >= #{openTime} AND close_time <= #{closeTime} AND symbol = #{symbol}")
-    @Results({
+    @Select("SELECT * FROM kline_data WHERE symbol = #{symbol} AND open_time BETWEEN #{openTime} AND #{closeTime} " +
+            "AND close_time <= #{closeTime} ORDER BY open_time")
+    @Results(id = "klineDataResult", value = {
             @Result(property = "openTime", column = "open_time"),
             @Result(property = "closeTime", column = "close_time"),
             @Result(property = "symbol", column = "symbol"),
@@ -64,6 +69,36 @@ public interface KlineDataMapper {
             @Result(property = "takerBuyQuoteVolume", column = "taker_buy_quote_volume"),
     })
     List<KlineData> findByPrimaryKey(@Param("openTime") Long openTime, @Param("closeTime") Long closeTime, @Param("symbol") String symbol);
+    /**
+     * Aggregates the {@link KlineData} records of a symbol into buckets of {@code bucketMillis} inside the database.
+     * <p>
+     * Selects the same rows as {@link #findByPrimaryKey} and groups them by open time aligned to {@code bucketMillis}.
+     * Each bucket takes the open price of its first record and the close time and close price of its last record,
+     * the highest high and lowest low price, and the sums of volumes and trade counts, matching
+     * {@code KlineDataRetrieveService.aggregation}. Only the aggregated rows are transferred, ordered by open time.
+     * </p>
+     *
+     * @param openTime     the lower bound of the open time (inclusive) in milliseconds; must not be null
+     * @param closeTime    the upper bound of the close time (inclusive) in milliseconds; must not be null
+     * @param symbol       the trading symbol for which the data is to be aggregated; must not be null
+     * @param bucketMillis the length of an aggregation bucket in milliseconds; must be positive
+     * @return a list of aggregated {@link KlineData} records, one per non-empty bucket
+     */
+    @Select("SELECT bucket AS open_time, MAX(close_time) AS close_time, symbol, " +
+            "MAX(first_open_price) AS open_price, MAX(high_price) AS high_price, MIN(low_price) AS low_price, " +
+            "MAX(last_close_price) AS close_price, SUM(volume) AS volume, SUM(quote_asset_volume) AS quote_asset_volume, " +
+            "SUM(number_of_trades) AS number_of_trades, SUM(taker_buy_base_volume) AS taker_buy_base_volume, " +
+            "SUM(taker_buy_quote_volume) AS taker_buy_quote_volume " +
+            "FROM (SELECT k.*, k.open_time - MOD(k.open_time, #{bucketMillis}) AS bucket, " +
+            "FIRST_VALUE(k.open_price) OVER w AS first_open_price, LAST_VALUE(k.close_price) OVER w AS last_close_price " +
+            "FROM kline_data k " +
+            "WHERE k.symbol = #{symbol} AND k.open_time BETWEEN #{openTime} AND #{closeTime} AND k.close_time <= #{closeTime} " +
+            "WINDOW w AS (PARTITION BY k.open_time - MOD(k.open_time, #{bucketMillis}) ORDER BY k.open_time " +
+            "ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING)) t " +
+            "GROUP BY bucket, symbol ORDER BY bucket")
+    @ResultMap("klineDataResult")
+    List<KlineData> aggregateByInterval(@Param("openTime") Long openTime, @Param("closeTime") Long closeTime, @Param("symbol") String symbol, @Param("bucketMillis") long bucketMillis);
+
     /**
      * Retrieves all {@link KlineData} records from the database.
      *
@@ -71,4 +106,28 @@ public interface KlineDataMapper {
      */
     @Select("SELECT * FROM kline_data")
     List<KlineData> findAll();
+
+    /**
+     * Retrieves the names of the partitions of the {@code kline_data} table in the current schema.
+     *
+     * @return the partition names ordered by their position, empty if the table is not partitioned
+     */
+    @Select("SELECT partition_name FROM information_schema.partitions " +
+            "WHERE table_schema = DATABASE() AND table_name = 'kline_data' AND partition_name IS NOT NULL " +
+            "ORDER BY partition_ordinal_position")
+    List<String> findPartitionNames();
+
+    /**
+     * Splits the catch-all {@code pmax} partition so that a new monthly partition is added in front of it.
+     * <p>
+     * The arguments are inlined into the DDL and must be generated by the application, never taken from user input.
+     * </p>
+     *
+     * @param partitionName the name of the new partition (e.g. "p202701")
+     * @param lessThan      the exclusive upper bound of the new partition's open time in milliseconds
+     */
+    @Update("ALTER TABLE kline_data REORGANIZE PARTITION pmax INTO (" +
+            "PARTITION ${partitionName} VALUES LESS THAN (${lessThan}), " +
+            "PARTITION pmax VALUES LESS THAN MAXVALUE)")
+    void addPartition(@Param("partitionName") String partitionName, @Param("lessThan") long lessThan);
 }
@@ -61,6 +61,11 @@ public class BinanceService extends KlineDataSourceService {
     }
 
 
+    @Override
+    protected Class<?> getResponseType() {
+        return String[][].class;
+    }
+
     private KlineData parseRow(String[] row, String symbol) {
         if (row.length < 12) {
             logger.error("Invalid row: {} with invalid length: {}, expected 12", Arrays.toString(row), row.length);
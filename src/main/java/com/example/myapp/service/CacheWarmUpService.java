@@ -0,0 +1,108 @@
+package com.example.myapp.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class CacheWarmUpService implements ApplicationRunner {
+
+    private static final Logger logger = LogManager.getLogger(CacheWarmUpService.class);
+
+    @Autowired
+    private KlineDataRetrieveService klineDataRetrieveService;
+
+    @Autowired
+    private Map<String, KlineDataSourceService> exchangeServiceFactory;
+
+    @Value("${warmup.enabled}")
+    private boolean enabled;
+
+    @Value("${warmup.exchangeName}")
+    private String exchangeName;
+
+    @Value("${warmup.symbols}")
+    private List<String> symbols;
+
+    @Value("${warmup.hours}")
+    private long hours;
+
+    @Value("${warmup.parallelism}")
+    private int parallelism;
+
+    @Value("${warmup.timeout}")
+    private long timeout;
+
+    /**
+     * Preloads the hot data set before the application reports ready.
+     * <p>
+     * Application runners complete before the readiness state switches to {@code ACCEPTING_TRAFFIC}, so the
+     * readiness probe only succeeds once the exchange's symbol list is in the in-process cache and the last
+     * {@code warmup.hours} hours of candles of every {@code warmup.symbols} symbol are in Redis. The symbols
+     * are loaded in parallel on {@code warmup.parallelism} threads. Failures are logged and do not block startup;
+     * neither does a hung database, Redis or exchange call: after {@code warmup.timeout} milliseconds the
+     * warm-up is abandoned, its threads are interrupted and startup continues with whatever has been loaded.
+     * </p>
+     *
+     * @param args the application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        KlineDataSourceService exchangeService = exchangeServiceFactory.get(exchangeName);
+        long endTime = startTime;
+        long warmUpStartTime = endTime - hours * 3600000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            futures.add(CompletableFuture.runAsync(exchangeService::refreshSymbols, executor)
+                    .exceptionally(e -> {
+                        logger.warn("Failed to warm up the symbol list of {}", exchangeName, e);
+                        return null;
+                    }));
+            for (String symbol : symbols) {
+                futures.add(CompletableFuture.runAsync(() -> klineDataRetrieveService.retrieveData(warmUpStartTime, endTime, symbol), executor)
+                        .exceptionally(e -> {
+                            logger.warn("Failed to warm up kline data of {}", symbol, e);
+                            return null;
+                        }));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .orTimeout(timeout, TimeUnit.MILLISECONDS)
+                    .join();
+            logger.info("Warmed up {} symbols over the last {} hours in {} ms", symbols.size(), hours, System.currentTimeMillis() - startTime);
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof TimeoutException)) {
+                throw e;
+            }
+            logger.warn("Warm-up did not finish within {} ms, continuing startup with a partially warmed cache", timeout);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @EventListener
+    public void logTimeToReady(ApplicationReadyEvent event) {
+        logger.info("Application ready in {} ms (warm-up {})", event.getTimeTaken().toMillis(), enabled ? "enabled" : "disabled");
+    }
+}
@@ -3,11 +3,17 @@ package com.example.myapp.service;
 import com.example.myapp.entity.exception.InputInvalidException;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.util.List;
 
 @Service
 public class InputValidationService {
+    @Value("${analytics.maxCells}")
+    private long maxCells;
+
+    @Value("${analytics.maxReturns}")
+    private long maxReturns;
+
     public void checkDataRange(Long startTime, Long endTime){
         if(startTime > endTime){
 
@@ -15,9 +21,33 @@ public class InputValidationService {
 );
         }
     }
+    public void checkMaxPoints(Integer maxPoints){
+        if(maxPoints != null && maxPoints < 3){
+            throw new InputInvalidException(String.format("maxPoints is %s. maxPoints should be at least 3.", maxPoints));
+        }
+    }
+    public void checkWindow(Integer window, Integer step){
+        if(window < 2){
+            throw new InputInvalidException(String.format("window is %s. window should be at least 2.", window));
+        }
+        if(step < 1){
+            throw new InputInvalidException(String.format("step is %s. step should be at least 1.", step));
+        }
+    }
+    public void checkCorrelationSize(int windows, int symbols){
+        long cells = (long) windows * symbols * symbols;
+        if(cells > maxCells){
+            throw new InputInvalidException(String.format("%s windows of %s symbols need %s matrix cells; at most %s are allowed. Use a larger step, a shorter range or fewer symbols.", windows, symbols, cells, maxCells));
+        }
+    }
+    public void checkReturnMatrixSize(long gridPoints, int symbols){
+        long returns = gridPoints * symbols;
+        if(returns > maxReturns){
+            throw new InputInvalidException(String.format("%s grid points of %s symbols need %s returns; at most %s are allowed. Use a larger interval, a shorter range or fewer symbols.", gridPoints, symbols, returns, maxReturns));
+        }
+    }
     public void checkSymbol(@NotBlank String symbol, @NotNull KlineDataSourceService exchangeService) {
-        List<String> symbolList  = exchangeService.getAllSymbols();
-        if (!symbolList.contains(symbol)) {
+        if (!exchangeService.getCachedSymbols().contains(symbol)) {
             throw new InputInvalidException(String.format("Invalid symbol: %s", symbol));
         }
 
@@ -0,0 +1,352 @@
+package com.example.myapp.service;
+
+import com.example.myapp.entity.CorrelationMatrix;
+import com.example.myapp.entity.KlineData;
+import com.example.myapp.entity.ReturnMatrix;
+import com.example.myapp.enums.Interval;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Validated
+@Service
+public class KlineDataAnalyticsService {
+
+    private static final Logger logger = LogManager.getLogger(KlineDataAnalyticsService.class);
+
+    @Autowired
+    private KlineDataRetrieveService klineDataRetrieveService;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${analytics.blockSize}")
+    private int blockSize;
+
+    @Value("${analytics.parallelism}")
+    private int parallelism;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Builds the log return matrix of several symbols on a common interval grid.
+     * <p>
+     * The grid starts at {@code startTime} aligned down to {@code interval} and has one point per interval up to
+     * {@code endTime}. The close series of every symbol is retrieved with
+     * {@link KlineDataRetrieveService#retrieveAggregatedDataOrEmpty} on {@code analytics.parallelism} threads, at
+     * most one database connection each, and placed on the grid; grid points without a candle
+     * carry the previous close forward, so a gap contributes zero returns and the whole move is attributed to the
+     * first candle after it. Symbols without any data in the range yield a row of {@code NaN}. The matrix holds
+     * {@link #countGridPoints} x symbols returns; callers are expected to bound it.
+     * </p>
+     *
+     * @param startTime the starting timestamp (in milliseconds) of the grid; must not be {@code null}
+     * @param endTime   the ending timestamp (in milliseconds) of the grid; must not be {@code null}
+     * @param symbols   the trading symbols, one row each; must not be empty
+     * @param interval  the grid interval (e.g., "1h"); must not be blank
+     * @return the {@link ReturnMatrix} of the symbols
+     */
+    public ReturnMatrix buildReturnMatrix(@NotNull Long startTime, @NotNull Long endTime, @NotEmpty List<String> symbols, @NotBlank String interval) {
+        long intervalMillis = Interval.fromLabel(interval).getMilliseconds();
+        long gridStartTime = (startTime / intervalMillis) * intervalMillis;
+        int gridSize = (int) countGridPoints(startTime, endTime, interval);
+
+        double[][] closes = new double[symbols.size()][];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[symbols.size()];
+        for (int i = 0; i < symbols.size(); i++) {
+            int row = i;
+            futures[i] = CompletableFuture.runAsync(() ->
+                    closes[row] = alignCloses(startTime, endTime, symbols.get(row), interval, gridStartTime, intervalMillis, gridSize),
+                    executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            // rethrow the retrieval's own exception so it maps to the same response as a sequential call
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        double[][] returns = new double[symbols.size()][gridSize];
+        for (int i = 0; i < symbols.size(); i++) {
+            returns[i][0] = Double.NaN;
+            for (int t = 1; t < gridSize; t++) {
+                returns[i][t] = Math.log(closes[i][t] / closes[i][t - 1]);
+            }
+        }
+
+        long[] openTimes = new long[gridSize];
+        for (int t = 0; t < gridSize; t++) {
+            openTimes[t] = gridStartTime + t * intervalMillis;
+        }
+
+        ReturnMatrix returnMatrix = new ReturnMatrix();
+        returnMatrix.setSymbols(symbols);
+        returnMatrix.setOpenTimes(openTimes);
+        returnMatrix.setReturns(returns);
+        return returnMatrix;
+    }
+
+    double[] alignCloses(long startTime, long endTime, String symbol, String interval, long gridStartTime, long intervalMillis, int gridSize) {
+        double[] closes = new double[gridSize];
+        Arrays.fill(closes, Double.NaN);
+        List<KlineData> dataList = klineDataRetrieveService.retrieveAggregatedDataOrEmpty(startTime, endTime, symbol, interval);
+        if (dataList.isEmpty()) {
+            logger.warn("No kline data for {} between {} and {}", symbol, startTime, endTime);
+            return closes;
+        }
+        for (KlineData data : dataList) {
+            long index = (data.getOpenTime() - gridStartTime) / intervalMillis;
+            if (index >= 0 && index < gridSize) {
+                closes[(int) index] = data.getClosePrice().doubleValue();
+            }
+        }
+        for (int t = 1; t < gridSize; t++) {
+            if (Double.isNaN(closes[t])) {
+                closes[t] = closes[t - 1];
+            }
+        }
+        return closes;
+    }
+
+    /**
+     * Counts the grid points of {@link #buildReturnMatrix} for the same arguments, i.e. the returns per symbol.
+     *
+     * @param startTime the starting timestamp (in milliseconds) of the grid; must not be {@code null}
+     * @param endTime   the ending timestamp (in milliseconds) of the grid; must not be {@code null}
+     * @param interval  the grid interval (e.g., "1h"); must not be blank
+     * @return the number of grid points, at least 1
+     */
+    public long countGridPoints(@NotNull Long startTime, @NotNull Long endTime, @NotBlank String interval) {
+        long intervalMillis = Interval.fromLabel(interval).getMilliseconds();
+        long gridStartTime = (startTime / intervalMillis) * intervalMillis;
+        return Math.max((endTime - gridStartTime + intervalMillis - 1) / intervalMillis, 1);
+    }
+
+    /**
+     * Counts the windows {@link #computeRollingCorrelation} returns for the same arguments.
+     *
+     * @param startTime the starting timestamp (in milliseconds) of the grid; must not be {@code null}
+     * @param endTime   the ending timestamp (in milliseconds) of the grid; must not be {@code null}
+     * @param interval  the grid interval (e.g., "1h"); must not be blank
+     * @param window    the number of returns per window; must be at least 2
+     * @param step      the number of grid points between consecutive window ends; must be at least 1
+     * @return the number of windows
+     */
+    public int countWindows(@NotNull Long startTime, @NotNull Long endTime, @NotBlank String interval, @Min(2) int window, @Min(1) int step) {
+        long gridSize = countGridPoints(startTime, endTime, interval);
+        return gridSize > window ? (int) ((gridSize - window - 1) / step + 1) : 0;
+    }
+
+    /**
+     * Computes rolling covariance and correlation matrices of the log returns of several symbols.
+     * <p>
+     * Windows of {@code window} consecutive returns on the grid of {@link #buildReturnMatrix} end every {@code step}
+     * grid points, starting with the first full window. Each window's matrices are cached in Redis for an hour,
+     * keyed by interval, window length, symbol list, grid start and window end; only windows missing from the cache
+     * are computed, and the return matrix is not built at all when every window is cached. Windows whose last
+     * candle has not closed by {@code endTime} or by now are recomputed on every request, since their last return
+     * can still change.
+     * </p>
+     * <p>
+     * The computation is split into tiles of {@code analytics.blockSize} x {@code analytics.blockSize} symbol pairs
+     * that are processed in parallel, so each tile only touches the return rows of its two symbol blocks. Each pair
+     * slides its sums along the grid once, so the cost grows with pairs x grid points regardless of the window
+     * length. Statistics are pairwise-complete: returns that are {@code NaN} for either symbol are skipped. The
+     * result holds {@link #countWindows} x symbols x symbols cells, and the return matrix it is computed from
+     * {@link #countGridPoints} x symbols; callers are expected to bound both.
+     * </p>
+     *
+     * @param startTime the starting timestamp (in milliseconds) of the grid; must not be {@code null}
+     * @param endTime   the ending timestamp (in milliseconds) of the grid; must not be {@code null}
+     * @param symbols   the trading symbols; must not be empty
+     * @param interval  the grid interval (e.g., "1h"); must not be blank
+     * @param window    the number of returns per window; must be at least 2
+     * @param step      the number of grid points between consecutive window ends; must be at least 1
+     * @return the {@link CorrelationMatrix} of every window, ordered by window end
+     */
+    public List<CorrelationMatrix> computeRollingCorrelation(@NotNull Long startTime, @NotNull Long endTime, @NotEmpty List<String> symbols,
+                                                             @NotBlank String interval, @Min(2) int window, @Min(1) int step) {
+        long intervalMillis = Interval.fromLabel(interval).getMilliseconds();
+        long gridStartTime = (startTime / intervalMillis) * intervalMillis;
+        int gridSize = (int) countGridPoints(startTime, endTime, interval);
+
+        // window w covers the returns at grid points windowEnds[w] - window + 1 .. windowEnds[w]
+        List<Integer> windowEnds = new ArrayList<>();
+        for (int end = window; end < gridSize; end += step) {
+            windowEnds.add(end);
+        }
+        if (windowEnds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // forward filling makes a window depend on the closes before it, so the grid start is part of the key
+        String keyPrefix = "correlation:" + interval + ":" + window + ":"
+                + Integer.toHexString(String.join(",", symbols).hashCode()) + ":" + gridStartTime + ":";
+        List<String> keys = windowEnds.stream()
+                .map(end -> keyPrefix + (gridStartTime + end * intervalMillis))
+                .toList();
+        List<Object> cached = redisTemplate.opsForValue().multiGet(keys);
+
+        CorrelationMatrix[] matrices = new CorrelationMatrix[windowEnds.size()];
+        List<Integer> missing = new ArrayList<>();
+        for (int w = 0; w < windowEnds.size(); w++) {
+            Object entry = cached == null ? null : cached.get(w);
+            // the key only holds a hash of the symbol list, so a hit must also match the symbols
+            if (entry instanceof CorrelationMatrix matrix && matrix.getSymbols().equals(symbols)) {
+                matrices[w] = matrix;
+            } else {
+                missing.add(w);
+            }
+        }
+        logger.info("Correlation windows: {}, cached: {}", windowEnds.size(), windowEnds.size() - missing.size());
+        if (missing.isEmpty()) {
+            return Arrays.asList(matrices);
+        }
+
+        double[][] returns = buildReturnMatrix(startTime, endTime, symbols, interval).getReturns();
+        int size = symbols.size();
+        List<Integer> missingEnds = missing.stream().map(windowEnds::get).toList();
+        double[][][] covariances = new double[missing.size()][size][size];
+        double[][][] correlations = new double[missing.size()][size][size];
+
+        int blocks = (size + blockSize - 1) / blockSize;
+        List<int[]> tiles = new ArrayList<>();
+        for (int rowBlock = 0; rowBlock < blocks; rowBlock++) {
+            for (int columnBlock = rowBlock; columnBlock < blocks; columnBlock++) {
+                tiles.add(new int[]{rowBlock, columnBlock});
+            }
+        }
+        tiles.parallelStream().forEach(tile -> {
+            int rowEnd = Math.min((tile[0] + 1) * blockSize, size);
+            int columnEnd = Math.min((tile[1] + 1) * blockSize, size);
+            for (int i = tile[0] * blockSize; i < rowEnd; i++) {
+                for (int j = Math.max(tile[1] * blockSize, i); j < columnEnd; j++) {
+                    computePair(returns[i], returns[j], window, missingEnds, i, j, covariances, correlations);
+                }
+            }
+        });
+
+        // the last return of a window is final once the candle opening at the window end has closed
+        long closedTime = Math.min(endTime, System.currentTimeMillis());
+        for (int m = 0; m < missing.size(); m++) {
+            int w = missing.get(m);
+            int end = windowEnds.get(w);
+            CorrelationMatrix matrix = new CorrelationMatrix();
+            matrix.setSymbols(symbols);
+            matrix.setWindowStart(gridStartTime + (end - window) * intervalMillis);
+            matrix.setWindowEnd(gridStartTime + end * intervalMillis);
+            matrix.setCovariance(covariances[m]);
+            matrix.setCorrelation(correlations[m]);
+            matrices[w] = matrix;
+            if (matrix.getWindowEnd() + intervalMillis <= closedTime) {
+                redisTemplate.opsForValue().set(keys.get(w), matrix, 1, TimeUnit.HOURS);
+            }
+        }
+        return Arrays.asList(matrices);
+    }
+
+    /**
+     * Fills cell {@code [i][j]} and {@code [j][i]} of {@code covariances[m]} and {@code correlations[m]} for the
+     * window ending at {@code windowEnds.get(m)}, keeping running sums while the window slides over the grid.
+     * <p>
+     * {@code windowEnds} must be ascending. A symbol whose returns are all zero in a window, e.g. across a
+     * forward-filled gap, has exactly zero variance: its covariance is 0 and its correlation {@code NaN}.
+     * </p>
+     */
+    void computePair(double[] x, double[] y, int window, List<Integer> windowEnds, int i, int j,
+                     double[][][] covariances, double[][][] correlations) {
+        int count = 0;
+        int nonZeroX = 0;
+        int nonZeroY = 0;
+        double sumX = 0;
+        double sumY = 0;
+        double sumXX = 0;
+        double sumYY = 0;
+        double sumXY = 0;
+        // the sums cover the returns at grid points from .. to - 1
+        int from = 0;
+        int to = 0;
+        for (int m = 0; m < windowEnds.size(); m++) {
+            int windowTo = windowEnds.get(m) + 1;
+            int windowFrom = windowTo - window;
+            for (; to < windowTo; to++) {
+                double a = x[to];
+                double b = y[to];
+                if (Double.isNaN(a) || Double.isNaN(b)) {
+                    continue;
+                }
+                count++;
+                nonZeroX += a != 0 ? 1 : 0;
+                nonZeroY += b != 0 ? 1 : 0;
+                sumX += a;
+                sumY += b;
+                sumXX += a * a;
+                sumYY += b * b;
+                sumXY += a * b;
+            }
+            for (; from < windowFrom; from++) {
+                double a = x[from];
+                double b = y[from];
+                if (Double.isNaN(a) || Double.isNaN(b)) {
+                    continue;
+                }
+                count--;
+                nonZeroX -= a != 0 ? 1 : 0;
+                nonZeroY -= b != 0 ? 1 : 0;
+                sumX -= a;
+                sumY -= b;
+                sumXX -= a * a;
+                sumYY -= b * b;
+                sumXY -= a * b;
+            }
+
+            double cov = Double.NaN;
+            double corr = Double.NaN;
+            if (count >= 2 && (nonZeroX == 0 || nonZeroY == 0)) {
+                // the subtracted sums may not cancel exactly, so zero variance is decided on the counts
+                cov = 0;
+            } else if (count >= 2) {
+                double coMoment = sumXY - sumX * sumY / count;
+                double varianceProduct = (sumXX - sumX * sumX / count) * (sumYY - sumY * sumY / count);
+                cov = coMoment / (count - 1);
+                if (varianceProduct > 0) {
+                    corr = Math.max(-1, Math.min(1, coMoment / Math.sqrt(varianceProduct)));
+                }
+            }
+            covariances[m][i][j] = cov;
+            covariances[m][j][i] = cov;
+            correlations[m][i][j] = corr;
+            correlations[m][j][i] = corr;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.myapp.service;
+
+import com.example.myapp.entity.IngestionWatermark;
+import com.example.myapp.entity.KlineData;
+import com.example.myapp.enums.Interval;
+import com.example.myapp.mapper.IngestionWatermarkMapper;
+import com.example.myapp.mapper.KlineDataMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+public class KlineDataIngestionService {
+
+    private static final Logger logger = LogManager.getLogger(KlineDataIngestionService.class);
+
+    @Autowired
+    private KlineDataMapper klineDataMapper;
+
+    @Autowired
+    private IngestionWatermarkMapper ingestionWatermarkMapper;
+
+    @Autowired
+    private Map<String, KlineDataSourceService> exchangeServiceFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ingestion.enabled}")
+    private boolean enabled;
+
+    @Value("${ingestion.exchangeName}")
+    private String exchangeName;
+
+    @Value("${ingestion.symbols}")
+    private List<String> symbols;
+
+    @Value("${ingestion.workers}")
+    private int workers;
+
+    @Value("${ingestion.initialLookback}")
+    private long initialLookback;
+
+    @Value("${ingestion.maxBatchesPerTick}")
+    private int maxBatchesPerTick;
+
+    @Value("${binance.default.interval}")
+    private String defaultInterval;
+
+    @Value("${binance.default.limit}")
+    private int defaultLimit;
+
+    // symbol -> open time of the next candle to fetch, mirrors ingestion_watermark
+    private final Map<String, Long> watermarks = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(workers);
+        if (!enabled) {
+            return;
+        }
+        for (String symbol : symbols) {
+            IngestionWatermark stored = ingestionWatermarkMapper.findWatermark(exchangeName, symbol, defaultInterval);
+            if (stored != null) {
+                watermarks.put(symbol, stored.getHighWaterMark());
+            }
+            // lag of the symbol's high-water mark behind now, NaN until the symbol has been ingested once
+            Gauge.builder("ingestion.lag", watermarks, marks -> {
+                        Long highWaterMark = marks.get(symbol);
+                        return highWaterMark == null ? Double.NaN : System.currentTimeMillis() - highWaterMark;
+                    })
+                    .description("Time between now and the open time of the next candle to ingest")
+                    .baseUnit("milliseconds")
+                    .tag("exchange", exchangeName)
+                    .tag("symbol", symbol)
+                    .tag("interval", defaultInterval)
+                    .register(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Scheduled ingestion tick that brings every tracked symbol up to date.
+     * <p>
+     * Tracked symbols are spread round-robin over {@code ingestion.workers} groups and each group is
+     * processed sequentially on its own worker thread. For every symbol only the closed candles between
+     * its persisted high-water mark and the current time are fetched, so overlapping ranges are never
+     * requested twice. A symbol that fails keeps its watermark and is retried on the next tick; after
+     * downtime the gap is caught up over consecutive ticks, at most {@code ingestion.maxBatchesPerTick}
+     * exchange calls per symbol each.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${ingestion.fixedDelay}", initialDelayString = "${ingestion.fixedDelay}")
+    public void ingest() {
+        if (!enabled || symbols.isEmpty()) {
+            return;
+        }
+        KlineDataSourceService exchangeService = exchangeServiceFactory.get(exchangeName);
+        long intervalMs = Interval.fromLabel(defaultInterval).getMilliseconds();
+        // the candle that is still forming is left for the next tick
+        long endTime = (System.currentTimeMillis() / intervalMs) * intervalMs;
+
+        List<List<String>> groups = new ArrayList<>();
+        for (int i = 0; i < Math.min(workers, symbols.size()); i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (int i = 0; i < symbols.size(); i++) {
+            groups.get(i % groups.size()).add(symbols.get(i));
+        }
+
+        CompletableFuture<?>[] futures = groups.stream()
+                .map(group -> CompletableFuture.runAsync(
+                        () -> group.forEach(symbol -> ingestSymbol(symbol, endTime, intervalMs, exchangeService)),
+                        executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private void ingestSymbol(String symbol, long endTime, long intervalMs, KlineDataSourceService exchangeService) {
+        long timeSpanPerCall = intervalMs * defaultLimit;
+        Long from = null;
+        int batches = 0;
+        try {
+            // the lookup reads the database for a symbol without a known watermark, so it can fail like a batch
+            from = getWatermark(symbol, endTime, intervalMs);
+            while (from < endTime && batches < maxBatchesPerTick) {
+                long batchEndTime = Math.min(from + timeSpanPerCall, endTime);
+                List<KlineData> batchData = exchangeService.getData(symbol, from, batchEndTime - 1);
+                if (!batchData.isEmpty()) {
+                    klineDataMapper.batchInsert(batchData);
+                }
+                // an empty range has no trades to wait for; otherwise resume right after the last candle received
+                from = batchData.isEmpty()
+                        ? batchEndTime
+                        : batchData.get(batchData.size() - 1).getOpenTime() + intervalMs;
+                saveWatermark(symbol, from);
+                batches++;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Ingestion of {} stopped at {}, will retry next tick", symbol, from, e);
+        }
+        if (from != null && from < endTime) {
+            logger.info("{} is still {} ms behind after {} batches", symbol, endTime - from, batches);
+        }
+    }
+
+    private long getWatermark(String symbol, long endTime, long intervalMs) {
+        return watermarks.computeIfAbsent(symbol, key -> {
+            IngestionWatermark stored = ingestionWatermarkMapper.findWatermark(exchangeName, key, defaultInterval);
+            if (stored != null) {
+                return stored.getHighWaterMark();
+            }
+            return ((endTime - initialLookback) / intervalMs) * intervalMs;
+        });
+    }
+
+    private void saveWatermark(String symbol, long highWaterMark) {
+        IngestionWatermark watermark = new IngestionWatermark();
+        watermark.setExchangeName(exchangeName);
+        watermark.setSymbol(symbol);
+        watermark.setIntervalLabel(defaultInterval);
+        watermark.setHighWaterMark(highWaterMark);
+        watermark.setUpdatedAt(System.currentTimeMillis());
+        ingestionWatermarkMapper.upsertWatermark(watermark);
+        watermarks.put(symbol, highWaterMark);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.myapp.service;
+
+import com.example.myapp.mapper.KlineDataMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Service
+public class KlineDataPartitionService {
+
+    private static final Logger logger = LogManager.getLogger(KlineDataPartitionService.class);
+
+    private static final DateTimeFormatter PARTITION_NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    private KlineDataMapper klineDataMapper;
+
+    @Value("${partition.maintenance.enabled}")
+    private boolean enabled;
+
+    @Value("${partition.monthsAhead}")
+    private int monthsAhead;
+
+    /**
+     * Makes sure the monthly partitions of {@code kline_data} exist ahead of time.
+     * <p>
+     * Every month from the current one up to {@code partition.monthsAhead} months ahead (UTC) gets its own
+     * {@code pYYYYMM} partition, split off the catch-all {@code pmax} partition. Since {@code pmax} is
+     * empty as long as this runs on schedule, the split only touches metadata. Runs once at startup and then
+     * every {@code partition.checkInterval} milliseconds.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${partition.checkInterval}")
+    public void ensurePartitions() {
+        if (!enabled) {
+            return;
+        }
+        List<String> partitionNames = klineDataMapper.findPartitionNames();
+        if (!partitionNames.contains("pmax")) {
+            logger.warn("kline_data has no pmax partition, skipping partition maintenance");
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String partitionName = month.format(PARTITION_NAME_FORMAT);
+            if (partitionNames.contains(partitionName)) {
+                continue;
+            }
+            long lessThan = month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+            klineDataMapper.addPartition(partitionName, lessThan);
+            logger.info("Added partition {} for open_time < {}", partitionName, lessThan);
+        }
+    }
+}
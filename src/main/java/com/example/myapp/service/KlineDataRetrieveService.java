@@ -1,8 +1,10 @@
 package com.example.myapp.service;
 
 import com.example.myapp.entity.KlineData;
+import com.example.myapp.enums.DownsampleMethod;
 import com.example.myapp.enums.Interval;
 import com.example.myapp.mapper.KlineDataMapper;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -31,6 +33,9 @@ public class KlineDataRetrieveService {
     @Value("${binance.default.interval}")
     private String defaultInterval;
 
+    @Value("${retrieve.pushdown.rowThreshold}")
+    private long pushdownRowThreshold;
+
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
@@ -60,11 +65,10 @@ public class KlineDataRetrieveService {
         String redisKey = "klineData:" + symbol + ":" + defaultInterval;
         ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
         long alignedStartTime = getBucketStartTime(startTime, defaultInterval);
-        long alignedEndTime = getBucketStartTime(endTime, defaultInterval);
-        if (alignedEndTime < endTime) {
-            alignedEndTime += Interval.fromLabel(defaultInterval).getMilliseconds();
-        }
-        Set<Object> resultSet = zSetOps.rangeByScore(redisKey, alignedStartTime, alignedEndTime);
+        long alignedEndTime = getAlignedEndTime(endTime);
+        // scores are open times; excluding alignedEndTime matches findByPrimaryKey, where the candle opening at
+        // alignedEndTime closes after it
+        Set<Object> resultSet = zSetOps.rangeByScore(redisKey, alignedStartTime, alignedEndTime - 1);
         long intervalMillis = Interval.fromLabel(defaultInterval).getMilliseconds();
         int expectedCount = (int) ((alignedEndTime - alignedStartTime) / intervalMillis)  ;
 
@@ -105,6 +109,58 @@ public class KlineDataRetrieveService {
         return (timestamp / intervalMillis) * intervalMillis ;
     }
 
+    private long getAlignedEndTime(long endTime) {
+        long alignedEndTime = getBucketStartTime(endTime, defaultInterval);
+        if (alignedEndTime < endTime) {
+            alignedEndTime += Interval.fromLabel(defaultInterval).getMilliseconds();
+        }
+        return alignedEndTime;
+    }
+
+    /**
+     * Retrieves Kline data for a given symbol and time range aggregated to the requested interval.
+     * <p>
+     * The number of stored records in the range is estimated from its length and the default interval.
+     * If the requested interval is coarser than the default one and the estimate exceeds
+     * {@code retrieve.pushdown.rowThreshold}, the aggregation is pushed down into the database so that only
+     * the aggregated rows are transferred. Otherwise the records are retrieved with {@link #retrieveData} and
+     * aggregated in memory with {@link #aggregation}. Both paths produce the same result.
+     * </p>
+     *
+     * @param startTime the starting timestamp (in milliseconds) for retrieving Kline data; must not be {@code null}
+     * @param endTime   the ending timestamp (in milliseconds) for retrieving Kline data; must not be {@code null}
+     * @param symbol    the trading symbol for which Kline data is being retrieved; must not be blank
+     * @param interval  the aggregation interval (e.g., "1m", "1d"); must not be blank
+     * @return a non-empty list of aggregated {@link KlineData} objects ordered by open time
+     */
+    public @NotEmpty List<KlineData> retrieveAggregatedData(@NotNull Long startTime, @NotNull Long endTime, @NotBlank String symbol, @NotBlank String interval) {
+        return retrieveAggregatedDataOrEmpty(startTime, endTime, symbol, interval);
+    }
+
+    /**
+     * Same as {@link #retrieveAggregatedData}, but returns an empty list for a range without data instead of
+     * violating the return value constraint, so callers can tell missing data apart from invalid arguments.
+     *
+     * @param startTime the starting timestamp (in milliseconds) for retrieving Kline data; must not be {@code null}
+     * @param endTime   the ending timestamp (in milliseconds) for retrieving Kline data; must not be {@code null}
+     * @param symbol    the trading symbol for which Kline data is being retrieved; must not be blank
+     * @param interval  the aggregation interval (e.g., "1m", "1d"); must not be blank
+     * @return a possibly empty list of aggregated {@link KlineData} objects ordered by open time
+     */
+    public List<KlineData> retrieveAggregatedDataOrEmpty(@NotNull Long startTime, @NotNull Long endTime, @NotBlank String symbol, @NotBlank String interval) {
+        long defaultIntervalMillis = Interval.fromLabel(defaultInterval).getMilliseconds();
+        long intervalMillis = Interval.fromLabel(interval).getMilliseconds();
+        long alignedStartTime = getBucketStartTime(startTime, defaultInterval);
+        long alignedEndTime = getAlignedEndTime(endTime);
+        long estimatedRows = (alignedEndTime - alignedStartTime) / defaultIntervalMillis;
+
+        if (intervalMillis > defaultIntervalMillis && estimatedRows > pushdownRowThreshold) {
+            logger.info("Estimated {} rows, aggregating to {} in the database", estimatedRows, interval);
+            return klineDataMapper.aggregateByInterval(alignedStartTime, alignedEndTime, symbol, intervalMillis);
+        }
+        return aggregation(retrieveData(startTime, endTime, symbol), interval);
+    }
+
     /**
      * Aggregates a list of KlineData objects into larger time buckets based on the specified interval.
      * <p>
@@ -122,34 +178,119 @@ public class KlineDataRetrieveService {
      *
      * @param dataList the list of KlineData objects to aggregate; must not be null
      * @param interval the aggregation interval (e.g., "1m", "5m"); must not be blank
-     * @return a non-empty list of aggregated KlineData objects grouped by the specified interval
+     * @return a non-empty list of aggregated KlineData objects grouped by the specified interval, ordered by open time
      */
     public @NotEmpty List<KlineData> aggregation(@NotNull List<KlineData> dataList, @NotBlank String interval) {
         List<KlineData> aggregatedList = new ArrayList<>();
 
         Map<Long, List<KlineData>> groupedData = dataList.stream().parallel()
-                .collect(Collectors.groupingBy(data -> getBucketStartTime(data.getOpenTime(), interval)));
+                .collect(Collectors.groupingBy(data -> getBucketStartTime(data.getOpenTime(), interval), TreeMap::new, Collectors.toList()));
         for (Map.Entry<Long, List<KlineData>> entry : groupedData.entrySet()) {
-            long bucketStartTime = entry.getKey();
-            List<KlineData> bucket = entry.getValue();
-
-            KlineData aggregated = new KlineData();
-            aggregated.setOpenTime(bucketStartTime);
-            aggregated.setCloseTime(bucket.get(bucket.size() - 1).getCloseTime());
-            aggregated.setSymbol(bucket.get(0).getSymbol());
-
-            aggregated.setOpenPrice(bucket.get(0).getOpenPrice());
-            aggregated.setClosePrice(bucket.get(bucket.size() - 1).getClosePrice());
-            aggregated.setHighPrice(bucket.stream().parallel().map(KlineData::getHighPrice).max(BigDecimal::compareTo).orElse(null));
-            aggregated.setLowPrice(bucket.stream().parallel().map(KlineData::getLowPrice).min(BigDecimal::compareTo).orElse(null));
-            aggregated.setVolume(bucket.stream().parallel().map(KlineData::getVolume).reduce(BigDecimal.ZERO, BigDecimal::add));
-            aggregated.setQuoteAssetVolume(bucket.stream().parallel().map(KlineData::getQuoteAssetVolume).reduce(BigDecimal.ZERO, BigDecimal::add));
-            aggregated.setNumberOfTrades(bucket.stream().parallel().mapToInt(KlineData::getNumberOfTrades).sum());
-            aggregated.setTakerBuyBaseVolume(bucket.stream().parallel().map(KlineData::getTakerBuyBaseVolume).reduce(BigDecimal.ZERO, BigDecimal::add));
-            aggregated.setTakerBuyQuoteVolume(bucket.stream().parallel().map(KlineData::getTakerBuyQuoteVolume).reduce(BigDecimal.ZERO, BigDecimal::add));
-
-            aggregatedList.add(aggregated);
+            aggregatedList.add(mergeBucket(entry.getValue(), entry.getKey()));
         }
         return aggregatedList;
     }
+
+    private KlineData mergeBucket(List<KlineData> bucket, long openTime) {
+        KlineData aggregated = new KlineData();
+        aggregated.setOpenTime(openTime);
+        aggregated.setCloseTime(bucket.get(bucket.size() - 1).getCloseTime());
+        aggregated.setSymbol(bucket.get(0).getSymbol());
+
+        aggregated.setOpenPrice(bucket.get(0).getOpenPrice());
+        aggregated.setClosePrice(bucket.get(bucket.size() - 1).getClosePrice());
+        aggregated.setHighPrice(bucket.stream().parallel().map(KlineData::getHighPrice).max(BigDecimal::compareTo).orElse(null));
+        aggregated.setLowPrice(bucket.stream().parallel().map(KlineData::getLowPrice).min(BigDecimal::compareTo).orElse(null));
+        aggregated.setVolume(bucket.stream().parallel().map(KlineData::getVolume).reduce(BigDecimal.ZERO, BigDecimal::add));
+        aggregated.setQuoteAssetVolume(bucket.stream().parallel().map(KlineData::getQuoteAssetVolume).reduce(BigDecimal.ZERO, BigDecimal::add));
+        aggregated.setNumberOfTrades(bucket.stream().parallel().mapToInt(KlineData::getNumberOfTrades).sum());
+        aggregated.setTakerBuyBaseVolume(bucket.stream().parallel().map(KlineData::getTakerBuyBaseVolume).reduce(BigDecimal.ZERO, BigDecimal::add));
+        aggregated.setTakerBuyQuoteVolume(bucket.stream().parallel().map(KlineData::getTakerBuyQuoteVolume).reduce(BigDecimal.ZERO, BigDecimal::add));
+        return aggregated;
+    }
+
+    /**
+     * Reduces an ordered list of KlineData objects to at most {@code maxPoints} entries for display.
+     * <p>
+     * Lists that already fit are returned unchanged. Otherwise the list is reduced in a single pass with one of:
+     * <ul>
+     *   <li>{@link DownsampleMethod#LTTB}: keeps the first and last candle and, for each of the remaining
+     *       {@code maxPoints - 2} buckets, the candle whose close forms the largest triangle with the previously
+     *       kept candle and the average of the next bucket. The kept candles are returned unmodified.</li>
+     *   <li>{@link DownsampleMethod#MIN_MAX}: splits the list into {@code maxPoints} consecutive buckets and merges
+     *       each like {@link #aggregation}, so the highest high and lowest low of every bucket survive.</li>
+     * </ul>
+     * </p>
+     *
+     * @param dataList  the list of KlineData objects ordered by open time; must not be null
+     * @param maxPoints the maximum number of entries to return; must be at least 3
+     * @param method    the downsampling method; must not be null
+     * @return a list of at most {@code maxPoints} KlineData objects ordered by open time
+     */
+    public List<KlineData> downsample(@NotNull List<KlineData> dataList, @Min(3) int maxPoints, @NotNull DownsampleMethod method) {
+        if (dataList.size() <= maxPoints) {
+            return dataList;
+        }
+        return switch (method) {
+            case LTTB -> largestTriangleThreeBuckets(dataList, maxPoints);
+            case MIN_MAX -> minMaxEnvelope(dataList, maxPoints);
+        };
+    }
+
+    private List<KlineData> largestTriangleThreeBuckets(List<KlineData> dataList, int maxPoints) {
+        int size = dataList.size();
+        long firstOpenTime = dataList.get(0).getOpenTime();
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            KlineData data = dataList.get(i);
+            x[i] = data.getOpenTime() - firstOpenTime;
+            y[i] = data.getClosePrice().doubleValue();
+        }
+
+        List<KlineData> sampled = new ArrayList<>(maxPoints);
+        sampled.add(dataList.get(0));
+        double bucketSize = (double) (size - 2) / (maxPoints - 2);
+        int selected = 0;
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            int averageStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int averageEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = averageStart; i < averageEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            averageX /= averageEnd - averageStart;
+            averageY /= averageEnd - averageStart;
+
+            int rangeStart = (int) (bucket * bucketSize) + 1;
+            int rangeEnd = (int) ((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((x[selected] - averageX) * (y[i] - y[selected]) - (x[selected] - x[i]) * (averageY - y[selected]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+            sampled.add(dataList.get(next));
+            selected = next;
+        }
+        sampled.add(dataList.get(size - 1));
+        return sampled;
+    }
+
+    private List<KlineData> minMaxEnvelope(List<KlineData> dataList, int maxPoints) {
+        int size = dataList.size();
+        List<KlineData> sampled = new ArrayList<>(maxPoints);
+        for (int bucket = 0; bucket < maxPoints; bucket++) {
+            int from = (int) ((long) bucket * size / maxPoints);
+            int to = (int) ((long) (bucket + 1) * size / maxPoints);
+            List<KlineData> bucketData = dataList.subList(from, to);
+            sampled.add(mergeBucket(bucketData, bucketData.get(0).getOpenTime()));
+        }
+        return sampled;
+    }
 }
@@ -5,23 +5,64 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 @Validated
 public abstract class KlineDataSourceService {
     @Autowired
     protected RestTemplate restTemplate;
 
+    @Value("${symbols.cacheTtl}")
+    private long symbolCacheTtl;
+
+    private volatile Set<String> symbolCache = Set.of();
+
+    private volatile long symbolCacheLoadedAt;
+
     protected abstract List<KlineData> parseResponseBody (@NotNull Object body, @NotBlank String symbol);
     protected abstract String buildApiUrl(@NotBlank String symbol, @NotNull long startTime, @NotNull long endTime);
     protected abstract List<String> getAllSymbols();
 
+    /**
+     * The type the raw kline API response is deserialized into before it is handed to {@link #parseResponseBody}.
+     */
+    protected Class<?> getResponseType() {
+        return Object.class;
+    }
+
+    /**
+     * Returns the symbols traded on the exchange from an in-process cache.
+     * <p>
+     * The cache is reloaded through {@link #getAllSymbols()} once it is older than {@code symbols.cacheTtl}
+     * milliseconds, so symbol validation does not call the exchange on every request.
+     * </p>
+     *
+     * @return the set of symbols traded on the exchange
+     */
+    public Set<String> getCachedSymbols() {
+        if (System.currentTimeMillis() - symbolCacheLoadedAt > symbolCacheTtl) {
+            refreshSymbols();
+        }
+        return symbolCache;
+    }
+
+    /**
+     * Reloads the in-process symbol cache from the exchange.
+     */
+    public void refreshSymbols() {
+        symbolCache = new HashSet<>(getAllSymbols());
+        symbolCacheLoadedAt = System.currentTimeMillis();
+    }
+
     public List<KlineData> getData(@NotBlank String symbol, @NotNull @Min(0) Long startTime, @NotNull @Min(0) Long endTime) {
         String url = buildApiUrl(symbol, startTime, endTime);
-        ResponseEntity<Object> response = restTemplate.getForEntity(url, Object.class);
+        ResponseEntity<?> response = restTemplate.getForEntity(url, getResponseType());
         return parseResponseBody(response.getBody(), symbol);
     }
 
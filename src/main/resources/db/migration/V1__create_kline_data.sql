@@ -0,0 +1,138 @@
+-- Fresh installs get kline_data clustered by (symbol, open_time) and range-partitioned by month of open_time (UTC).
+-- Partition pYYYYMM holds the candles opened in that month; p201707 also holds anything older.
+-- Future months are split off pmax by KlineDataPartitionService.
+-- Existing installs keep their table here (IF NOT EXISTS) and are converted online with
+-- scripts/db/rebuild_kline_data.sh, outside of application startup.
+CREATE TABLE IF NOT EXISTS kline_data (
+    open_time                BIGINT         NOT NULL,
+    close_time               BIGINT         NOT NULL,
+    symbol                   VARCHAR(32)    NOT NULL,
+    open_price               DECIMAL(28, 8) NOT NULL,
+    high_price               DECIMAL(28, 8) NOT NULL,
+    low_price                DECIMAL(28, 8) NOT NULL,
+    close_price              DECIMAL(28, 8) NOT NULL,
+    volume                   DECIMAL(28, 8) NOT NULL,
+    quote_asset_volume       DECIMAL(28, 8) NOT NULL,
+    number_of_trades         INT            NOT NULL,
+    taker_buy_base_volume    DECIMAL(28, 8) NOT NULL,
+    taker_buy_quote_volume   DECIMAL(28, 8) NOT NULL,
+    PRIMARY KEY (symbol, open_time)
+) ENGINE = InnoDB
+PARTITION BY RANGE (open_time) (
+    PARTITION p201707 VALUES LESS THAN (1501545600000),
+    PARTITION p201708 VALUES LESS THAN (1504224000000),
+    PARTITION p201709 VALUES LESS THAN (1506816000000),
+    PARTITION p201710 VALUES LESS THAN (1509494400000),
+    PARTITION p201711 VALUES LESS THAN (1512086400000),
+    PARTITION p201712 VALUES LESS THAN (1514764800000),
+    PARTITION p201801 VALUES LESS THAN (1517443200000),
+    PARTITION p201802 VALUES LESS THAN (1519862400000),
+    PARTITION p201803 VALUES LESS THAN (1522540800000),
+    PARTITION p201804 VALUES LESS THAN (1525132800000),
+    PARTITION p201805 VALUES LESS THAN (1527811200000),
+    PARTITION p201806 VALUES LESS THAN (1530403200000),
+    PARTITION p201807 VALUES LESS THAN (1533081600000),
+    PARTITION p201808 VALUES LESS THAN (1535760000000),
+    PARTITION p201809 VALUES LESS THAN (1538352000000),
+    PARTITION p201810 VALUES LESS THAN (1541030400000),
+    PARTITION p201811 VALUES LESS THAN (1543622400000),
+    PARTITION p201812 VALUES LESS THAN (1546300800000),
+    PARTITION p201901 VALUES LESS THAN (1548979200000),
+    PARTITION p201902 VALUES LESS THAN (1551398400000),
+    PARTITION p201903 VALUES LESS THAN (1554076800000),
+    PARTITION p201904 VALUES LESS THAN (1556668800000),
+    PARTITION p201905 VALUES LESS THAN (1559347200000),
+    PARTITION p201906 VALUES LESS THAN (1561939200000),
+    PARTITION p201907 VALUES LESS THAN (1564617600000),
+    PARTITION p201908 VALUES LESS THAN (1567296000000),
+    PARTITION p201909 VALUES LESS THAN (1569888000000),
+    PARTITION p201910 VALUES LESS THAN (1572566400000),
+    PARTITION p201911 VALUES LESS THAN (1575158400000),
+    PARTITION p201912 VALUES LESS THAN (1577836800000),
+    PARTITION p202001 VALUES LESS THAN (1580515200000),
+    PARTITION p202002 VALUES LESS THAN (1583020800000),
+    PARTITION p202003 VALUES LESS THAN (1585699200000),
+    PARTITION p202004 VALUES LESS THAN (1588291200000),
+    PARTITION p202005 VALUES LESS THAN (1590969600000),
+    PARTITION p202006 VALUES LESS THAN (1593561600000),
+    PARTITION p202007 VALUES LESS THAN (1596240000000),
+    PARTITION p202008 VALUES LESS THAN (1598918400000),
+    PARTITION p202009 VALUES LESS THAN (1601510400000),
+    PARTITION p202010 VALUES LESS THAN (1604188800000),
+    PARTITION p202011 VALUES LESS THAN (1606780800000),
+    PARTITION p202012 VALUES LESS THAN (1609459200000),
+    PARTITION p202101 VALUES LESS THAN (1612137600000),
+    PARTITION p202102 VALUES LESS THAN (1614556800000),
+    PARTITION p202103 VALUES LESS THAN (1617235200000),
+    PARTITION p202104 VALUES LESS THAN (1619827200000),
+    PARTITION p202105 VALUES LESS THAN (1622505600000),
+    PARTITION p202106 VALUES LESS THAN (1625097600000),
+    PARTITION p202107 VALUES LESS THAN (1627776000000),
+    PARTITION p202108 VALUES LESS THAN (1630454400000),
+    PARTITION p202109 VALUES LESS THAN (1633046400000),
+    PARTITION p202110 VALUES LESS THAN (1635724800000),
+    PARTITION p202111 VALUES LESS THAN (1638316800000),
+    PARTITION p202112 VALUES LESS THAN (1640995200000),
+    PARTITION p202201 VALUES LESS THAN (1643673600000),
+    PARTITION p202202 VALUES LESS THAN (1646092800000),
+    PARTITION p202203 VALUES LESS THAN (1648771200000),
+    PARTITION p202204 VALUES LESS THAN (1651363200000),
+    PARTITION p202205 VALUES LESS THAN (1654041600000),
+    PARTITION p202206 VALUES LESS THAN (1656633600000),
+    PARTITION p202207 VALUES LESS THAN (1659312000000),
+    PARTITION p202208 VALUES LESS THAN (1661990400000),
+    PARTITION p202209 VALUES LESS THAN (1664582400000),
+    PARTITION p202210 VALUES LESS THAN (1667260800000),
+    PARTITION p202211 VALUES LESS THAN (1669852800000),
+    PARTITION p202212 VALUES LESS THAN (1672531200000),
+    PARTITION p202301 VALUES LESS THAN (1675209600000),
+    PARTITION p202302 VALUES LESS THAN (1677628800000),
+    PARTITION p202303 VALUES LESS THAN (1680307200000),
+    PARTITION p202304 VALUES LESS THAN (1682899200000),
+    PARTITION p202305 VALUES LESS THAN (1685577600000),
+    PARTITION p202306 VALUES LESS THAN (1688169600000),
+    PARTITION p202307 VALUES LESS THAN (1690848000000),
+    PARTITION p202308 VALUES LESS THAN (1693526400000),
+    PARTITION p202309 VALUES LESS THAN (1696118400000),
+    PARTITION p202310 VALUES LESS THAN (1698796800000),
+    PARTITION p202311 VALUES LESS THAN (1701388800000),
+    PARTITION p202312 VALUES LESS THAN (1704067200000),
+    PARTITION p202401 VALUES LESS THAN (1706745600000),
+    PARTITION p202402 VALUES LESS THAN (1709251200000),
+    PARTITION p202403 VALUES LESS THAN (1711929600000),
+    PARTITION p202404 VALUES LESS THAN (1714521600000),
+    PARTITION p202405 VALUES LESS THAN (1717200000000),
+    PARTITION p202406 VALUES LESS THAN (1719792000000),
+    PARTITION p202407 VALUES LESS THAN (1722470400000),
+    PARTITION p202408 VALUES LESS THAN (1725148800000),
+    PARTITION p202409 VALUES LESS THAN (1727740800000),
+    PARTITION p202410 VALUES LESS THAN (1730419200000),
+    PARTITION p202411 VALUES LESS THAN (1733011200000),
+    PARTITION p202412 VALUES LESS THAN (1735689600000),
+    PARTITION p202501 VALUES LESS THAN (1738368000000),
+    PARTITION p202502 VALUES LESS THAN (1740787200000),
+    PARTITION p202503 VALUES LESS THAN (1743465600000),
+    PARTITION p202504 VALUES LESS THAN (1746057600000),
+    PARTITION p202505 VALUES LESS THAN (1748736000000),
+    PARTITION p202506 VALUES LESS THAN (1751328000000),
+    PARTITION p202507 VALUES LESS THAN (1754006400000),
+    PARTITION p202508 VALUES LESS THAN (1756684800000),
+    PARTITION p202509 VALUES LESS THAN (1759276800000),
+    PARTITION p202510 VALUES LESS THAN (1761955200000),
+    PARTITION p202511 VALUES LESS THAN (1764547200000),
+    PARTITION p202512 VALUES LESS THAN (1767225600000),
+    PARTITION p202601 VALUES LESS THAN (1769904000000),
+    PARTITION p202602 VALUES LESS THAN (1772323200000),
+    PARTITION p202603 VALUES LESS THAN (1775001600000),
+    PARTITION p202604 VALUES LESS THAN (1777593600000),
+    PARTITION p202605 VALUES LESS THAN (1780272000000),
+    PARTITION p202606 VALUES LESS THAN (1782864000000),
+    PARTITION p202607 VALUES LESS THAN (1785542400000),
+    PARTITION p202608 VALUES LESS THAN (1788220800000),
+    PARTITION p202609 VALUES LESS THAN (1790812800000),
+    PARTITION p202610 VALUES LESS THAN (1793491200000),
+    PARTITION p202611 VALUES LESS THAN (1796083200000),
+    PARTITION p202612 VALUES LESS THAN (1798761600000),
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
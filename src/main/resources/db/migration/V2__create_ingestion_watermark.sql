@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS ingestion_watermark (
+    exchange_name   VARCHAR(32) NOT NULL,
+    symbol          VARCHAR(32) NOT NULL,
+    interval_label  VARCHAR(8)  NOT NULL,
+    high_water_mark BIGINT      NOT NULL,
+    updated_at      BIGINT      NOT NULL,
+    PRIMARY KEY (exchange_name, symbol, interval_label)
+) ENGINE = InnoDB;
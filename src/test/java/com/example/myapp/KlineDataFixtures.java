@@ -0,0 +1,77 @@
+package com.example.myapp;
+
+import com.example.myapp.entity.KlineData;
+import com.github.fppt.jedismock.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared test data: deterministic 1m candles and an in-process Redis server.
+ */
+public final class KlineDataFixtures {
+
+	public static final long MINUTE = 60000L;
+
+	// 2024-01-01T00:00Z
+	public static final long DAY_0 = 1704067200000L;
+
+	private KlineDataFixtures() {
+	}
+
+	/**
+	 * Builds the {@code i}-th candle of a noisy but reproducible series: every field is set, prices move by up to
+	 * 10 in both directions between candles, and volumes, trade counts and taker volumes cycle with different periods.
+	 *
+	 * @param symbol   the trading symbol
+	 * @param openTime the open time in milliseconds; the candle closes a minute later
+	 * @param i        the position in the series the field values are derived from
+	 * @return the candle
+	 */
+	public static KlineData candle(String symbol, long openTime, int i) {
+		BigDecimal open = new BigDecimal("100.00000000").add(BigDecimal.valueOf((i * 37) % 1000, 2));
+		BigDecimal close = new BigDecimal("100.00000000").add(BigDecimal.valueOf((i * 53) % 1000, 2));
+		KlineData data = new KlineData();
+		data.setOpenTime(openTime);
+		data.setCloseTime(openTime + MINUTE - 1);
+		data.setSymbol(symbol);
+		data.setOpenPrice(open);
+		data.setClosePrice(close);
+		data.setHighPrice(open.max(close).add(new BigDecimal("0.12345678")));
+		data.setLowPrice(open.min(close).subtract(new BigDecimal("0.87654321")));
+		data.setVolume(BigDecimal.valueOf(i % 113 + 1, 3).setScale(8));
+		data.setQuoteAssetVolume(BigDecimal.valueOf(i % 71 + 1, 1).setScale(8));
+		data.setNumberOfTrades(i % 29 + 1);
+		data.setTakerBuyBaseVolume(BigDecimal.valueOf(i % 13, 4).setScale(8));
+		data.setTakerBuyQuoteVolume(BigDecimal.valueOf(i % 17, 4).setScale(8));
+		return data;
+	}
+
+	/**
+	 * Builds {@code count} consecutive candles of {@link #candle} starting at {@link #DAY_0}.
+	 */
+	public static List<KlineData> candles(String symbol, int count) {
+		List<KlineData> dataList = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			dataList.add(candle(symbol, DAY_0 + i * MINUTE, i));
+		}
+		return dataList;
+	}
+
+	/**
+	 * Starts a jedis-mock Redis server on a free port; point {@code spring.data.redis.port} at
+	 * {@link RedisServer#getBindPort()}.
+	 */
+	public static RedisServer startRedis() {
+		try {
+			RedisServer server = RedisServer.newRedisServer();
+			server.start();
+			return server;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
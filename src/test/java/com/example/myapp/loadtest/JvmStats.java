@@ -0,0 +1,49 @@
+package com.example.myapp.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of heap usage and per-collector GC counters of the current JVM.
+ * <p>
+ * The load test runs the application and the load generator in the same JVM, so the numbers include both.
+ * </p>
+ */
+public class JvmStats {
+
+	private final MemoryUsage heap;
+
+	// collector name -> {collection count, collection time in ms}
+	private final Map<String, long[]> collectors = new LinkedHashMap<>();
+
+	private JvmStats() {
+		heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			collectors.put(collector.getName(), new long[]{collector.getCollectionCount(), collector.getCollectionTime()});
+		}
+	}
+
+	public static JvmStats snapshot() {
+		return new JvmStats();
+	}
+
+	/**
+	 * Formats the heap usage of this snapshot and the GC activity since {@code before}.
+	 *
+	 * @param before the snapshot taken at the start of the run
+	 * @return a multi-line summary
+	 */
+	public String summarySince(JvmStats before) {
+		StringBuilder summary = new StringBuilder(String.format("heap used=%d MB (start %d MB) committed=%d MB max=%d MB",
+				heap.getUsed() >> 20, before.heap.getUsed() >> 20, heap.getCommitted() >> 20, heap.getMax() >> 20));
+		for (Map.Entry<String, long[]> entry : collectors.entrySet()) {
+			long[] start = before.collectors.getOrDefault(entry.getKey(), new long[]{0, 0});
+			summary.append(String.format("%ngc %s: collections=%d time=%d ms",
+					entry.getKey(), entry.getValue()[0] - start[0], entry.getValue()[1] - start[1]));
+		}
+		return summary.toString();
+	}
+}
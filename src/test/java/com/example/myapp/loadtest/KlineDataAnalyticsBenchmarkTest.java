@@ -0,0 +1,148 @@
+package com.example.myapp.loadtest;
+
+import com.example.myapp.entity.CorrelationMatrix;
+import com.example.myapp.entity.KlineData;
+import com.example.myapp.service.KlineDataAnalyticsService;
+import com.example.myapp.service.KlineDataRetrieveService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compute-only benchmark of {@link KlineDataAnalyticsService} at a year of hourly returns for a few hundred symbols.
+ * <p>
+ * Retrieval and Redis are mocked: every symbol's candles are generated on request as a random walk with a few gaps,
+ * and the cache is always empty, so the timings cover aligning the closes, building the return matrix and the tiled
+ * pairwise computation. Excluded from the default build; run with
+ * {@code mvn -Pload-test test -Dtest=KlineDataAnalyticsBenchmarkTest} and tune with {@code -Dbenchmark.symbols},
+ * {@code -Dbenchmark.gridPoints}, {@code -Dbenchmark.window}, {@code -Dbenchmark.step} and
+ * {@code -Dbenchmark.blockSize}.
+ * </p>
+ */
+@Tag("load")
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class KlineDataAnalyticsBenchmarkTest {
+
+	private static final int SYMBOLS = Integer.getInteger("benchmark.symbols", 300);
+
+	private static final int GRID_POINTS = Integer.getInteger("benchmark.gridPoints", 8760);
+
+	private static final int WINDOW = Integer.getInteger("benchmark.window", 720);
+
+	private static final int STEP = Integer.getInteger("benchmark.step", 720);
+
+	private static final int BLOCK_SIZE = Integer.getInteger("benchmark.blockSize", 32);
+
+	private static final long HOUR = 3600000L;
+
+	// 2024-01-01T00:00Z
+	private static final long DAY_0 = 1704067200000L;
+
+	@Mock
+	private KlineDataRetrieveService klineDataRetrieveService;
+
+	@Mock
+	private RedisTemplate<String, Object> redisTemplate;
+
+	@Mock
+	private ValueOperations<String, Object> valueOperations;
+
+	@InjectMocks
+	private KlineDataAnalyticsService klineDataAnalyticsService;
+
+	private final List<String> symbols = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(klineDataAnalyticsService, "blockSize", BLOCK_SIZE);
+		ReflectionTestUtils.setField(klineDataAnalyticsService, "parallelism", 10);
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		when(valueOperations.multiGet(anyCollection()))
+				.thenAnswer(invocation -> Arrays.asList(new Object[((Collection<?>) invocation.getArgument(0)).size()]));
+		when(klineDataRetrieveService.retrieveAggregatedDataOrEmpty(anyLong(), anyLong(), anyString(), anyString()))
+				.thenAnswer(invocation -> candles(invocation.getArgument(2)));
+		for (int i = 0; i < SYMBOLS; i++) {
+			symbols.add("SYM" + i);
+		}
+		klineDataAnalyticsService.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		klineDataAnalyticsService.shutdown();
+	}
+
+	@Test
+	void rollingCorrelation() {
+		long endTime = DAY_0 + GRID_POINTS * HOUR;
+		int windows = klineDataAnalyticsService.countWindows(DAY_0, endTime, "1h", WINDOW, STEP);
+
+		// one untimed build, so the timed build and the one inside computeRollingCorrelation run equally warm
+		klineDataAnalyticsService.buildReturnMatrix(DAY_0, endTime, symbols, "1h");
+		long started = System.nanoTime();
+		double[][] returns = klineDataAnalyticsService.buildReturnMatrix(DAY_0, endTime, symbols, "1h").getReturns();
+		long buildTime = (System.nanoTime() - started) / 1000000;
+
+		started = System.nanoTime();
+		List<CorrelationMatrix> matrices = klineDataAnalyticsService.computeRollingCorrelation(DAY_0, endTime, symbols, "1h", WINDOW, STEP);
+		long correlationTime = (System.nanoTime() - started) / 1000000;
+
+		assertEquals(GRID_POINTS, returns[0].length);
+		assertEquals(windows, matrices.size());
+		for (CorrelationMatrix matrix : matrices) {
+			for (int i = 0; i < SYMBOLS; i++) {
+				assertEquals(1, matrix.getCorrelation()[i][i], 1e-9);
+			}
+		}
+		long pairs = (long) SYMBOLS * (SYMBOLS + 1) / 2;
+		System.out.printf("Analytics benchmark: symbols=%d gridPoints=%d window=%d step=%d blockSize=%d windows=%d pairs=%d "
+						+ "cpus=%d%n", SYMBOLS, GRID_POINTS, WINDOW, STEP, BLOCK_SIZE, windows, pairs,
+				Runtime.getRuntime().availableProcessors());
+		System.out.printf("buildReturnMatrix=%d ms computeRollingCorrelation=%d ms (tiled pairs=%d ms, %.1f ns per pair and grid point)%n",
+				buildTime, correlationTime, correlationTime - buildTime,
+				(correlationTime - buildTime) * 1e6 / pairs / GRID_POINTS);
+	}
+
+	// an hourly random walk per symbol with every 50th candle missing
+	private static List<KlineData> candles(String symbol) {
+		Random random = new Random(symbol.hashCode());
+		List<KlineData> dataList = new ArrayList<>(GRID_POINTS);
+		double close = 100;
+		for (int t = 0; t < GRID_POINTS; t++) {
+			close *= Math.exp(random.nextGaussian() * 0.01);
+			if (t % 50 == 49) {
+				continue;
+			}
+			KlineData data = new KlineData();
+			data.setOpenTime(DAY_0 + t * HOUR);
+			data.setCloseTime(DAY_0 + (t + 1) * HOUR - 1);
+			data.setClosePrice(BigDecimal.valueOf(close));
+			dataList.add(data);
+		}
+		return dataList;
+	}
+}
@@ -0,0 +1,166 @@
+package com.example.myapp.loadtest;
+
+import com.example.myapp.KlineDataFixtures;
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Offline load test driving mixed backfill and retrieve traffic through the HTTP API.
+ * <p>
+ * Binance, MySQL and Redis are replaced by {@link StubExchangeServer}, H2 in MySQL mode and an in-process
+ * jedis-mock server. Excluded from the default build; run with {@code mvn -Pload-test test} and tune with
+ * {@code -Dloadtest.concurrency}, {@code -Dloadtest.requests}, {@code -Dloadtest.postRatio} and {@code -Dloadtest.seed}.
+ * </p>
+ */
+@Tag("load")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class KlineDataLoadTest {
+
+	private static final List<String> SYMBOLS = List.of("BTCUSDT", "ETHUSDT", "BNBUSDT", "SOLUSDT");
+
+	private static final String[] INTERVALS = {"1m", "5m", "1h", "1d"};
+
+	// 2024-01-01T00:00Z to 2024-01-08T00:00Z
+	private static final long WINDOW_START = 1704067200000L;
+
+	private static final long WINDOW_END = 1704672000000L;
+
+	private static final long ONE_HOUR = 3600000L;
+
+	private static final long ONE_DAY = 86400000L;
+
+	private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+
+	private static final int REQUESTS = Integer.getInteger("loadtest.requests", 2000);
+
+	private static final double POST_RATIO = Double.parseDouble(System.getProperty("loadtest.postRatio", "0.1"));
+
+	private static final long SEED = Long.getLong("loadtest.seed", 42L);
+
+	private static final StubExchangeServer exchange = StubExchangeServer.start(SYMBOLS);
+
+	private static final RedisServer redis = KlineDataFixtures.startRedis();
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	private int port;
+
+	@DynamicPropertySource
+	static void stubProperties(DynamicPropertyRegistry registry) {
+		registry.add("binance.klineApi.url.template", exchange::getKlineUrlTemplate);
+		registry.add("binance.livePrice.url", exchange::getTickerUrl);
+		registry.add("spring.data.redis.port", redis::getBindPort);
+	}
+
+	@AfterAll
+	static void stopStubs() throws IOException {
+		exchange.stop();
+		redis.stop();
+	}
+
+	@Test
+	void mixedBackfillAndRetrieve() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+		try {
+			// seed every symbol with the whole window so that retrieves never hit an empty range
+			List<Future<Integer>> backfills = new ArrayList<>();
+			for (String symbol : SYMBOLS) {
+				backfills.add(executor.submit(() -> send(postRequest(symbol, WINDOW_START, WINDOW_END))));
+			}
+			for (Future<Integer> backfill : backfills) {
+				assertEquals(200, backfill.get());
+			}
+
+			LatencyRecorder postLatency = new LatencyRecorder("POST");
+			LatencyRecorder getLatency = new LatencyRecorder("GET");
+			Random random = new Random(SEED);
+			List<HttpRequest> requests = new ArrayList<>(REQUESTS);
+			for (int i = 0; i < REQUESTS; i++) {
+				requests.add(random.nextDouble() < POST_RATIO ? randomPost(random) : randomGet(random));
+			}
+
+			JvmStats before = JvmStats.snapshot();
+			long runStart = System.nanoTime();
+			List<Future<?>> futures = new ArrayList<>(REQUESTS);
+			for (HttpRequest request : requests) {
+				LatencyRecorder recorder = request.method().equals("POST") ? postLatency : getLatency;
+				futures.add(executor.submit(() -> {
+					long start = System.nanoTime();
+					int status = send(request);
+					recorder.record(System.nanoTime() - start, status / 100 == 2);
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			long wallTime = System.nanoTime() - runStart;
+			JvmStats after = JvmStats.snapshot();
+
+			System.out.printf("Load test: concurrency=%d requests=%d postRatio=%.2f wall=%d ms exchangeCalls=%d%n",
+					CONCURRENCY, REQUESTS, POST_RATIO, wallTime / 1000000, exchange.getKlineRequests());
+			System.out.println(postLatency.summary(wallTime));
+			System.out.println(getLatency.summary(wallTime));
+			System.out.println(after.summarySince(before));
+
+			assertEquals(0, postLatency.getErrors());
+			assertEquals(0, getLatency.getErrors());
+			assertTrue(exchange.getKlineRequests() > 0);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private HttpRequest randomPost(Random random) {
+		String symbol = SYMBOLS.get(random.nextInt(SYMBOLS.size()));
+		long startTime = WINDOW_START + (long) (random.nextDouble() * (WINDOW_END - WINDOW_START - ONE_DAY));
+		return postRequest(symbol, startTime, startTime + ONE_DAY);
+	}
+
+	private HttpRequest randomGet(Random random) {
+		String symbol = SYMBOLS.get(random.nextInt(SYMBOLS.size()));
+		long length = ONE_HOUR + (long) (random.nextDouble() * (WINDOW_END - WINDOW_START - ONE_HOUR));
+		long startTime = WINDOW_START + (long) (random.nextDouble() * (WINDOW_END - WINDOW_START - length));
+		String query = String.format("exchangeName=Binance&symbol=%s&startTime=%d&endTime=%d&interval=%s",
+				symbol, startTime, startTime + length, INTERVALS[random.nextInt(INTERVALS.length)]);
+		if (random.nextBoolean()) {
+			query += "&maxPoints=500&downsampleMethod=" + (random.nextBoolean() ? "lttb" : "minmax");
+		}
+		return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/klinedata?" + query)).GET().build();
+	}
+
+	private HttpRequest postRequest(String symbol, long startTime, long endTime) {
+		String query = String.format("exchangeName=Binance&symbol=%s&startTime=%d&endTime=%d", symbol, startTime, endTime);
+		return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/klinedata?" + query))
+				.POST(HttpRequest.BodyPublishers.noBody())
+				.build();
+	}
+
+	private int send(HttpRequest request) throws IOException, InterruptedException {
+		return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+}
@@ -0,0 +1,57 @@
+package com.example.myapp.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe collector of request latencies for one kind of request.
+ */
+public class LatencyRecorder {
+
+	private final String name;
+
+	private final ConcurrentLinkedQueue<Long> latenciesNanos = new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong errors = new AtomicLong();
+
+	public LatencyRecorder(String name) {
+		this.name = name;
+	}
+
+	public void record(long latencyNanos, boolean success) {
+		latenciesNanos.add(latencyNanos);
+		if (!success) {
+			errors.incrementAndGet();
+		}
+	}
+
+	public long getErrors() {
+		return errors.get();
+	}
+
+	/**
+	 * Formats request count, errors, throughput over {@code wallTimeNanos} and the p50/p99/p999 latencies.
+	 *
+	 * @param wallTimeNanos the duration of the whole run in nanoseconds
+	 * @return a one-line summary
+	 */
+	public String summary(long wallTimeNanos) {
+		long[] sorted = latenciesNanos.stream().mapToLong(Long::longValue).toArray();
+		Arrays.sort(sorted);
+		double throughput = sorted.length / (wallTimeNanos / 1e9);
+		return String.format("%-4s requests=%d errors=%d throughput=%.1f req/s p50=%.2f ms p99=%.2f ms p999=%.2f ms max=%.2f ms",
+				name, sorted.length, errors.get(), throughput,
+				percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 0.999),
+				sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+	}
+
+	// nearest-rank percentile
+	private static double percentileMillis(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile * sorted.length);
+		return sorted[Math.max(rank - 1, 0)] / 1e6;
+	}
+}
@@ -0,0 +1,25 @@
+package com.example.myapp.loadtest;
+
+import com.github.fppt.jedismock.RedisServer;
+
+import java.util.Arrays;
+
+/**
+ * Runs the load test's stand-ins for Redis and the Binance REST API as a separate process, so that the packaged
+ * application can be started against them (see {@code scripts/startup/compare_startup.sh}).
+ * <p>
+ * Usage: {@code LocalBackends <redis port> <symbol>...}. Prints {@code kline=<url template>} and
+ * {@code ticker=<url>} once both are up and runs until killed.
+ * </p>
+ */
+public class LocalBackends {
+
+	public static void main(String[] args) throws Exception {
+		RedisServer redis = RedisServer.newRedisServer(Integer.parseInt(args[0]));
+		redis.start();
+		StubExchangeServer exchange = StubExchangeServer.start(Arrays.asList(args).subList(1, args.length));
+		System.out.println("kline=" + exchange.getKlineUrlTemplate());
+		System.out.println("ticker=" + exchange.getTickerUrl());
+		Thread.sleep(Long.MAX_VALUE);
+	}
+}
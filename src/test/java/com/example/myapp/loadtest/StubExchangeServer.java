@@ -0,0 +1,160 @@
+package com.example.myapp.loadtest;
+
+import com.example.myapp.enums.Interval;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Binance REST API serving synthetic, deterministic klines and ticker prices.
+ * <p>
+ * Implements {@code /api/v3/klines} and {@code /api/v3/ticker/price} with the same response layout as Binance,
+ * so {@code BinanceService} can be pointed at it through {@link #getKlineUrlTemplate()} and {@link #getTickerUrl()}.
+ * </p>
+ */
+public class StubExchangeServer {
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	private final List<String> symbols;
+
+	private final AtomicLong klineRequests = new AtomicLong();
+
+	private StubExchangeServer(List<String> symbols) {
+		this.symbols = symbols;
+		try {
+			server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		server.setExecutor(executor);
+		server.createContext("/api/v3/klines", this::handleKlines);
+		server.createContext("/api/v3/ticker/price", this::handleTicker);
+	}
+
+	public static StubExchangeServer start(List<String> symbols) {
+		StubExchangeServer stub = new StubExchangeServer(symbols);
+		stub.server.start();
+		return stub;
+	}
+
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	public String getKlineUrlTemplate() {
+		return getBaseUrl() + "/api/v3/klines?symbol=%s&interval=%s&startTime=%d&endTime=%d&limit=%d";
+	}
+
+	public String getTickerUrl() {
+		return getBaseUrl() + "/api/v3/ticker/price";
+	}
+
+	public long getKlineRequests() {
+		return klineRequests.get();
+	}
+
+	private String getBaseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	private void handleKlines(HttpExchange exchange) throws IOException {
+		klineRequests.incrementAndGet();
+		Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+		String symbol = query.get("symbol");
+		long intervalMs = Interval.fromLabel(query.get("interval")).getMilliseconds();
+		long startTime = Long.parseLong(query.get("startTime"));
+		long endTime = Long.parseLong(query.get("endTime"));
+		int limit = Integer.parseInt(query.get("limit"));
+
+		StringBuilder body = new StringBuilder("[");
+		long openTime = ((startTime + intervalMs - 1) / intervalMs) * intervalMs;
+		for (int count = 0; openTime <= endTime && count < limit; count++, openTime += intervalMs) {
+			if (count > 0) {
+				body.append(',');
+			}
+			appendKline(body, symbol, openTime, intervalMs);
+		}
+		body.append(']');
+		respond(exchange, body.toString());
+	}
+
+	private void handleTicker(HttpExchange exchange) throws IOException {
+		StringBuilder body = new StringBuilder("[");
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < symbols.size(); i++) {
+			if (i > 0) {
+				body.append(',');
+			}
+			body.append("{\"symbol\":\"").append(symbols.get(i))
+					.append("\",\"price\":\"").append(format(price(symbols.get(i), now))).append("\"}");
+		}
+		body.append(']');
+		respond(exchange, body.toString());
+	}
+
+	// same layout as Binance: times and trade count as numbers, prices and volumes as strings
+	private static void appendKline(StringBuilder body, String symbol, long openTime, long intervalMs) {
+		double open = price(symbol, openTime);
+		double close = price(symbol, openTime + intervalMs);
+		double high = Math.max(open, close) * 1.001;
+		double low = Math.min(open, close) * 0.999;
+		double volume = 10 + Math.abs(Math.sin(openTime / 600_000.0)) * 90;
+		int trades = 100 + (int) (volume * 3);
+		body.append('[').append(openTime)
+				.append(",\"").append(format(open))
+				.append("\",\"").append(format(high))
+				.append("\",\"").append(format(low))
+				.append("\",\"").append(format(close))
+				.append("\",\"").append(format(volume))
+				.append("\",").append(openTime + intervalMs - 1)
+				.append(",\"").append(format(volume * close))
+				.append("\",").append(trades)
+				.append(",\"").append(format(volume / 2))
+				.append("\",\"").append(format(volume * close / 2))
+				.append("\",\"0\"]");
+	}
+
+	private static double price(String symbol, long time) {
+		double base = 10 + Math.floorMod(symbol.hashCode(), 1000);
+		return base * (1 + 0.02 * Math.sin(time / 3_600_000.0) + 0.005 * Math.sin(time / 60_000.0));
+	}
+
+	private static String format(double value) {
+		return String.format(Locale.ROOT, "%.8f", value);
+	}
+
+	private static Map<String, String> parseQuery(String rawQuery) {
+		Map<String, String> query = new HashMap<>();
+		for (String pair : rawQuery.split("&")) {
+			int separator = pair.indexOf('=');
+			query.put(pair.substring(0, separator), pair.substring(separator + 1));
+		}
+		return query;
+	}
+
+	private static void respond(HttpExchange exchange, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
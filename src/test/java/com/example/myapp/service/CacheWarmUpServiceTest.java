@@ -0,0 +1,73 @@
+package com.example.myapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that {@link CacheWarmUpService} never keeps the application from becoming ready.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CacheWarmUpServiceTest {
+
+	@Mock
+	private KlineDataRetrieveService klineDataRetrieveService;
+
+	private final KlineDataSourceService exchangeService = mock(KlineDataSourceService.class);
+
+	@InjectMocks
+	private CacheWarmUpService cacheWarmUpService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(cacheWarmUpService, "exchangeServiceFactory", Map.of("Binance", exchangeService));
+		ReflectionTestUtils.setField(cacheWarmUpService, "enabled", true);
+		ReflectionTestUtils.setField(cacheWarmUpService, "exchangeName", "Binance");
+		ReflectionTestUtils.setField(cacheWarmUpService, "symbols", List.of("AAA", "BBB", "CCC"));
+		ReflectionTestUtils.setField(cacheWarmUpService, "hours", 24L);
+		ReflectionTestUtils.setField(cacheWarmUpService, "parallelism", 2);
+		ReflectionTestUtils.setField(cacheWarmUpService, "timeout", 500L);
+	}
+
+	@Test
+	void hungCallIsAbandonedAfterTheTimeout() {
+		CountDownLatch never = new CountDownLatch(1);
+		when(klineDataRetrieveService.retrieveData(anyLong(), anyLong(), eq("BBB"))).thenAnswer(invocation -> {
+			never.await();
+			return List.of();
+		});
+
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> cacheWarmUpService.run(null));
+	}
+
+	@Test
+	void failuresDoNotStopTheOtherSymbols() {
+		doThrow(new IllegalStateException("exchange down")).when(exchangeService).refreshSymbols();
+		when(klineDataRetrieveService.retrieveData(anyLong(), anyLong(), eq("AAA"))).thenThrow(new IllegalStateException("redis down"));
+
+		cacheWarmUpService.run(null);
+
+		verify(klineDataRetrieveService).retrieveData(anyLong(), anyLong(), eq("BBB"));
+		verify(klineDataRetrieveService).retrieveData(anyLong(), anyLong(), eq("CCC"));
+	}
+}
@@ -0,0 +1,295 @@
+package com.example.myapp.service;
+
+import com.example.myapp.entity.CorrelationMatrix;
+import com.example.myapp.entity.KlineData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the grid alignment and the sliding covariance/correlation of {@link KlineDataAnalyticsService} against a
+ * direct two-pass computation, with the retrieve service and Redis mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class KlineDataAnalyticsServiceTest {
+
+	private static final long HOUR = 3600000L;
+
+	// 2024-01-01T00:00Z
+	private static final long DAY_0 = 1704067200000L;
+
+	@Mock
+	private KlineDataRetrieveService klineDataRetrieveService;
+
+	@Mock
+	private RedisTemplate<String, Object> redisTemplate;
+
+	@Mock
+	private ValueOperations<String, Object> valueOperations;
+
+	@InjectMocks
+	private KlineDataAnalyticsService klineDataAnalyticsService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(klineDataAnalyticsService, "blockSize", 3);
+		ReflectionTestUtils.setField(klineDataAnalyticsService, "parallelism", 2);
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		// an empty cache answers every key with null
+		when(valueOperations.multiGet(anyCollection()))
+				.thenAnswer(invocation -> Arrays.asList(new Object[((Collection<?>) invocation.getArgument(0)).size()]));
+		klineDataAnalyticsService.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		klineDataAnalyticsService.shutdown();
+	}
+
+	@Test
+	void alignClosesForwardFillsGaps() {
+		// candles at grid points 2, 3 and 6, plus one before and one after the grid
+		when(klineDataRetrieveService.retrieveAggregatedDataOrEmpty(anyLong(), anyLong(), eq("GAP"), anyString()))
+				.thenReturn(List.of(candle(-1, 5), candle(2, 10), candle(3, 11), candle(6, 12), candle(8, 13)));
+
+		double[] closes = klineDataAnalyticsService.alignCloses(DAY_0, DAY_0 + 8 * HOUR, "GAP", "1h", DAY_0, HOUR, 8);
+
+		assertArrayEquals(new double[]{Double.NaN, Double.NaN, 10, 11, 11, 11, 12, 12}, closes);
+	}
+
+	@Test
+	void alignClosesReturnsNaNRowWithoutData() {
+		when(klineDataRetrieveService.retrieveAggregatedDataOrEmpty(anyLong(), anyLong(), eq("EMPTY"), anyString()))
+				.thenReturn(List.of());
+
+		double[] closes = klineDataAnalyticsService.alignCloses(DAY_0, DAY_0 + 4 * HOUR, "EMPTY", "1h", DAY_0, HOUR, 4);
+
+		assertArrayEquals(new double[]{Double.NaN, Double.NaN, Double.NaN, Double.NaN}, closes);
+	}
+
+	@Test
+	void buildReturnMatrixRethrowsRetrievalFailures() {
+		when(klineDataRetrieveService.retrieveAggregatedDataOrEmpty(anyLong(), anyLong(), anyString(), anyString()))
+				.thenReturn(List.of(candle(0, 1), candle(1, 2)));
+		when(klineDataRetrieveService.retrieveAggregatedDataOrEmpty(anyLong(), anyLong(), eq("BAD"), anyString()))
+				.thenThrow(new IllegalArgumentException("Invalid interval"));
+
+		// not wrapped in a CompletionException by the retrieval threads
+		assertThrows(IllegalArgumentException.class,
+				() -> klineDataAnalyticsService.buildReturnMatrix(DAY_0, DAY_0 + 2 * HOUR, List.of("A", "BAD", "B"), "1h"));
+	}
+
+	@Test
+	void countGridPointsMatchesTheReturnMatrix() {
+		when(klineDataRetrieveService.retrieveAggregatedDataOrEmpty(anyLong(), anyLong(), anyString(), anyString()))
+				.thenReturn(List.of(candle(0, 1)));
+
+		for (long endTime : new long[]{DAY_0 + 1, DAY_0 + HOUR, DAY_0 + HOUR + 1, DAY_0 + 5 * HOUR}) {
+			assertEquals(klineDataAnalyticsService.countGridPoints(DAY_0 + 1, endTime, "1h"),
+					klineDataAnalyticsService.buildReturnMatrix(DAY_0 + 1, endTime, List.of("A"), "1h").getOpenTimes().length);
+		}
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"2, 1",
+			"5, 1",
+			"5, 3",
+			"5, 5",
+			"5, 8",
+			"40, 7",
+	})
+	void computePairMatchesTwoPassComputation(int window, int step) {
+		double[] x = randomReturns(new Random(1), 200, 0.1);
+		double[] y = randomReturns(new Random(2), 200, 0.1);
+		List<Integer> windowEnds = new ArrayList<>();
+		for (int end = window; end < x.length; end += step) {
+			windowEnds.add(end);
+		}
+		double[][][] covariances = new double[windowEnds.size()][2][2];
+		double[][][] correlations = new double[windowEnds.size()][2][2];
+
+		klineDataAnalyticsService.computePair(x, y, window, windowEnds, 0, 1, covariances, correlations);
+
+		for (int m = 0; m < windowEnds.size(); m++) {
+			int end = windowEnds.get(m);
+			double[] expected = twoPass(x, y, end - window + 1, end + 1);
+			assertEquals(expected[0], covariances[m][0][1], 1e-12, "covariance of window " + end);
+			assertEquals(expected[1], correlations[m][0][1], 1e-9, "correlation of window " + end);
+			assertEquals(covariances[m][0][1], covariances[m][1][0]);
+			assertEquals(correlations[m][0][1], correlations[m][1][0]);
+		}
+	}
+
+	@Test
+	void computePairHandlesZeroVarianceAndMissingReturns() {
+		// volatile until 20, flat (a forward-filled gap) from 20 to 40, then missing for y from 40
+		double[] x = randomReturns(new Random(3), 60, 0);
+		double[] y = randomReturns(new Random(4), 60, 0);
+		Arrays.fill(x, 20, 40, 0);
+		Arrays.fill(y, 40, 60, Double.NaN);
+		y[58] = 0.01;
+		List<Integer> windowEnds = List.of(10, 39, 59);
+		double[][][] covariances = new double[3][2][2];
+		double[][][] correlations = new double[3][2][2];
+
+		klineDataAnalyticsService.computePair(x, y, 10, windowEnds, 0, 1, covariances, correlations);
+
+		assertFalse(Double.isNaN(correlations[0][0][1]));
+		assertEquals(0, covariances[1][0][1]);
+		assertTrue(Double.isNaN(correlations[1][0][1]));
+		// a single common return
+		assertTrue(Double.isNaN(covariances[2][0][1]));
+		assertTrue(Double.isNaN(correlations[2][0][1]));
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"1, 3",
+			"7, 3",
+			"7, 32",
+			"9, 3",
+	})
+	void computeRollingCorrelationMatchesTwoPassAcrossTiles(int symbolCount, int blockSize) {
+		ReflectionTestUtils.setField(klineDataAnalyticsService, "blockSize", blockSize);
+		List<String> symbols = new ArrayList<>();
+		for (int i = 0; i < symbolCount; i++) {
+			String symbol = "SYM" + i;
+			symbols.add(symbol);
+			Random random = new Random(i);
+			List<KlineData> dataList = new ArrayList<>();
+			double close = 100;
+			for (int t = 0; t < 120; t++) {
+				close *= Math.exp(random.nextGaussian() * 0.01);
+				// SYM1 is flat, SYM2 has a gap and SYM4 has no data at all
+				boolean skipped = (i == 2 && t >= 30 && t < 45) || i == 4;
+				if (!skipped) {
+					dataList.add(candle(t, i == 1 ? 100 : close));
+				}
+			}
+			when(klineDataRetrieveService.retrieveAggregatedDataOrEmpty(anyLong(), anyLong(), eq(symbol), anyString()))
+					.thenReturn(dataList);
+		}
+		long endTime = DAY_0 + 120 * HOUR;
+
+		List<CorrelationMatrix> matrices = klineDataAnalyticsService.computeRollingCorrelation(DAY_0, endTime, symbols, "1h", 24, 5);
+		double[][] returns = klineDataAnalyticsService.buildReturnMatrix(DAY_0, endTime, symbols, "1h").getReturns();
+
+		assertEquals(klineDataAnalyticsService.countWindows(DAY_0, endTime, "1h", 24, 5), matrices.size());
+		for (CorrelationMatrix matrix : matrices) {
+			int end = (int) ((matrix.getWindowEnd() - DAY_0) / HOUR);
+			for (int i = 0; i < symbolCount; i++) {
+				for (int j = 0; j < symbolCount; j++) {
+					double[] expected = twoPass(returns[i], returns[j], end - 23, end + 1);
+					String cell = "[" + i + "][" + j + "] of window " + end;
+					assertEquals(expected[0], matrix.getCovariance()[i][j], 1e-12, "covariance " + cell);
+					assertEquals(expected[1], matrix.getCorrelation()[i][j], 1e-9, "correlation " + cell);
+				}
+			}
+		}
+	}
+
+	@Test
+	void computeRollingCorrelationCachesClosedWindowsOnly() {
+		when(klineDataRetrieveService.retrieveAggregatedDataOrEmpty(anyLong(), anyLong(), anyString(), anyString()))
+				.thenReturn(List.of(candle(0, 1), candle(1, 2), candle(2, 3), candle(3, 5), candle(4, 8),
+						candle(5, 13), candle(6, 21), candle(7, 34), candle(8, 55), candle(9, 89), candle(10, 144)));
+		// the candle opening at grid point 10 has not closed by the end time
+		long endTime = DAY_0 + 10 * HOUR + HOUR / 2;
+
+		List<CorrelationMatrix> matrices = klineDataAnalyticsService.computeRollingCorrelation(DAY_0 + 1, endTime,
+				List.of("A", "B"), "1h", 2, 1);
+
+		assertEquals(9, matrices.size());
+		ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+		verify(valueOperations, atLeastOnce()).set(keys.capture(), any(), eq(1L), eq(TimeUnit.HOURS));
+		assertEquals(8, keys.getAllValues().size());
+		for (String key : keys.getAllValues()) {
+			assertTrue(key.contains(":" + DAY_0 + ":"), key);
+			assertFalse(key.endsWith(":" + (DAY_0 + 10 * HOUR)), key);
+		}
+	}
+
+	// {covariance, correlation} of the pairwise-complete returns in [from, to), computed around the means
+	private static double[] twoPass(double[] x, double[] y, int from, int to) {
+		int count = 0;
+		double meanX = 0;
+		double meanY = 0;
+		for (int t = from; t < to; t++) {
+			if (!Double.isNaN(x[t]) && !Double.isNaN(y[t])) {
+				count++;
+				meanX += x[t];
+				meanY += y[t];
+			}
+		}
+		if (count < 2) {
+			return new double[]{Double.NaN, Double.NaN};
+		}
+		meanX /= count;
+		meanY /= count;
+		double coMoment = 0;
+		double squaresX = 0;
+		double squaresY = 0;
+		for (int t = from; t < to; t++) {
+			if (!Double.isNaN(x[t]) && !Double.isNaN(y[t])) {
+				coMoment += (x[t] - meanX) * (y[t] - meanY);
+				squaresX += (x[t] - meanX) * (x[t] - meanX);
+				squaresY += (y[t] - meanY) * (y[t] - meanY);
+			}
+		}
+		return new double[]{coMoment / (count - 1), coMoment / Math.sqrt(squaresX * squaresY)};
+	}
+
+	// log-return-sized noise with a leading NaN like a return matrix row and the given share of NaN returns
+	private static double[] randomReturns(Random random, int size, double missingShare) {
+		double[] returns = new double[size];
+		returns[0] = Double.NaN;
+		for (int t = 1; t < size; t++) {
+			returns[t] = random.nextDouble() < missingShare ? Double.NaN : random.nextGaussian() * 0.01;
+		}
+		return returns;
+	}
+
+	private static KlineData candle(int gridPoint, double close) {
+		KlineData data = new KlineData();
+		data.setOpenTime(DAY_0 + gridPoint * HOUR);
+		data.setCloseTime(DAY_0 + (gridPoint + 1) * HOUR - 1);
+		data.setClosePrice(BigDecimal.valueOf(close));
+		return data;
+	}
+}
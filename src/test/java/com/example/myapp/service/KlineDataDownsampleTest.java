@@ -0,0 +1,125 @@
+package com.example.myapp.service;
+
+import com.example.myapp.KlineDataFixtures;
+import com.example.myapp.entity.KlineData;
+import com.example.myapp.enums.DownsampleMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.example.myapp.KlineDataFixtures.DAY_0;
+import static com.example.myapp.KlineDataFixtures.MINUTE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the invariants of {@link KlineDataRetrieveService#downsample} for both methods, including the smallest
+ * inputs that need reducing.
+ */
+class KlineDataDownsampleTest {
+
+	private final KlineDataRetrieveService klineDataRetrieveService = new KlineDataRetrieveService();
+
+	@ParameterizedTest
+	@CsvSource({
+			"4, 3",
+			"11, 10",
+			"1000, 3",
+			"1000, 7",
+			"1000, 999",
+			"1441, 100",
+	})
+	void largestTriangleThreeBucketsKeepsEndpointsAndOrder(int size, int maxPoints) {
+		List<KlineData> dataList = candles(size);
+
+		List<KlineData> sampled = klineDataRetrieveService.downsample(dataList, maxPoints, DownsampleMethod.LTTB);
+
+		assertEquals(maxPoints, sampled.size());
+		assertSame(dataList.get(0), sampled.get(0));
+		assertSame(dataList.get(size - 1), sampled.get(maxPoints - 1));
+		assertStrictlyOrdered(sampled);
+		// the kept candles are the original objects
+		for (KlineData data : sampled) {
+			assertSame(dataList.get((int) ((data.getOpenTime() - DAY_0) / MINUTE)), data);
+		}
+	}
+
+	@Test
+	void largestTriangleThreeBucketsKeepsSpike() {
+		List<KlineData> dataList = candles(1000);
+		KlineData spike = dataList.get(500);
+		spike.setClosePrice(new BigDecimal("1000.00000000"));
+
+		List<KlineData> sampled = klineDataRetrieveService.downsample(dataList, 10, DownsampleMethod.LTTB);
+
+		assertTrue(sampled.contains(spike));
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"4, 3",
+			"11, 10",
+			"1000, 3",
+			"1000, 7",
+			"1000, 999",
+			"1441, 100",
+	})
+	void minMaxEnvelopeKeepsExtremesAndTotals(int size, int maxPoints) {
+		List<KlineData> dataList = candles(size);
+
+		List<KlineData> sampled = klineDataRetrieveService.downsample(dataList, maxPoints, DownsampleMethod.MIN_MAX);
+
+		assertEquals(maxPoints, sampled.size());
+		assertStrictlyOrdered(sampled);
+		assertEquals(dataList.get(0).getOpenTime(), sampled.get(0).getOpenTime());
+		assertEquals(dataList.get(0).getOpenPrice(), sampled.get(0).getOpenPrice());
+		assertEquals(dataList.get(size - 1).getClosePrice(), sampled.get(maxPoints - 1).getClosePrice());
+		assertEquals(max(dataList), max(sampled));
+		assertEquals(min(dataList), min(sampled));
+		assertEquals(0, volume(dataList).compareTo(volume(sampled)));
+		assertEquals(dataList.stream().mapToInt(KlineData::getNumberOfTrades).sum(),
+				sampled.stream().mapToInt(KlineData::getNumberOfTrades).sum());
+	}
+
+	@Test
+	void listThatFitsIsReturnedUnchanged() {
+		List<KlineData> dataList = candles(10);
+
+		assertSame(dataList, klineDataRetrieveService.downsample(dataList, 10, DownsampleMethod.LTTB));
+		assertSame(dataList, klineDataRetrieveService.downsample(dataList, 10, DownsampleMethod.MIN_MAX));
+	}
+
+	private static void assertStrictlyOrdered(List<KlineData> sampled) {
+		for (int i = 1; i < sampled.size(); i++) {
+			assertTrue(sampled.get(i - 1).getOpenTime() < sampled.get(i).getOpenTime(),
+					"open times out of order at " + i);
+		}
+	}
+
+	private static BigDecimal max(List<KlineData> dataList) {
+		return dataList.stream().map(KlineData::getHighPrice).max(Comparator.naturalOrder()).orElseThrow();
+	}
+
+	private static BigDecimal min(List<KlineData> dataList) {
+		return dataList.stream().map(KlineData::getLowPrice).min(Comparator.naturalOrder()).orElseThrow();
+	}
+
+	private static BigDecimal volume(List<KlineData> dataList) {
+		return dataList.stream().map(KlineData::getVolume).reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+	// the fixture series with its global high and low moved into the middle of the list
+	private static List<KlineData> candles(int size) {
+		List<KlineData> dataList = KlineDataFixtures.candles("DOWNSAMPLETEST", size);
+		KlineData high = dataList.get(size / 2);
+		high.setHighPrice(high.getHighPrice().add(new BigDecimal("50")));
+		KlineData low = dataList.get(size / 3);
+		low.setLowPrice(low.getLowPrice().subtract(new BigDecimal("50")));
+		return dataList;
+	}
+}
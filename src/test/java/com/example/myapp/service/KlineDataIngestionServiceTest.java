@@ -0,0 +1,180 @@
+package com.example.myapp.service;
+
+import com.example.myapp.entity.IngestionWatermark;
+import com.example.myapp.entity.KlineData;
+import com.example.myapp.mapper.IngestionWatermarkMapper;
+import com.example.myapp.mapper.KlineDataMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks how {@link KlineDataIngestionService} advances watermarks and catches up, with the exchange and both
+ * mappers mocked.
+ * <p>
+ * The stored watermarks lie a day back, so every tick is cut off by {@code ingestion.maxBatchesPerTick} and the
+ * requested ranges only depend on the stored watermark, not on the current time.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class KlineDataIngestionServiceTest {
+
+	private static final long MINUTE = 60000L;
+
+	// two candles per exchange call
+	private static final long SPAN = 2 * MINUTE;
+
+	@Mock
+	private KlineDataMapper klineDataMapper;
+
+	@Mock
+	private IngestionWatermarkMapper ingestionWatermarkMapper;
+
+	private final KlineDataSourceService exchangeService = mock(KlineDataSourceService.class);
+
+	@InjectMocks
+	private KlineDataIngestionService klineDataIngestionService;
+
+	private long watermark;
+
+	@BeforeEach
+	void setUp() {
+		watermark = (System.currentTimeMillis() / MINUTE) * MINUTE - 1440 * MINUTE;
+		ReflectionTestUtils.setField(klineDataIngestionService, "exchangeServiceFactory", Map.of("Binance", exchangeService));
+		ReflectionTestUtils.setField(klineDataIngestionService, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(klineDataIngestionService, "enabled", true);
+		ReflectionTestUtils.setField(klineDataIngestionService, "exchangeName", "Binance");
+		ReflectionTestUtils.setField(klineDataIngestionService, "symbols", List.of("AAA", "BBB"));
+		// one worker, so both symbols are processed sequentially in the same group
+		ReflectionTestUtils.setField(klineDataIngestionService, "workers", 1);
+		ReflectionTestUtils.setField(klineDataIngestionService, "initialLookback", 10 * MINUTE);
+		ReflectionTestUtils.setField(klineDataIngestionService, "maxBatchesPerTick", 3);
+		ReflectionTestUtils.setField(klineDataIngestionService, "defaultInterval", "1m");
+		ReflectionTestUtils.setField(klineDataIngestionService, "defaultLimit", 2);
+		when(ingestionWatermarkMapper.findWatermark(anyString(), anyString(), anyString()))
+				.thenAnswer(invocation -> stored(invocation.getArgument(1), watermark));
+		when(exchangeService.getData(anyString(), anyLong(), anyLong())).thenReturn(List.of());
+		klineDataIngestionService.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		klineDataIngestionService.shutdown();
+	}
+
+	@Test
+	void emptyBatchesAdvanceByTheRequestedSpan() {
+		klineDataIngestionService.ingest();
+
+		verify(exchangeService).getData("AAA", watermark, watermark + SPAN - 1);
+		verify(exchangeService).getData("AAA", watermark + SPAN, watermark + 2 * SPAN - 1);
+		verify(exchangeService).getData("AAA", watermark + 2 * SPAN, watermark + 3 * SPAN - 1);
+		verify(klineDataMapper, never()).batchInsert(anyList());
+		assertEquals(watermark + 3 * SPAN, lastSavedWatermark("AAA"));
+	}
+
+	@Test
+	void partialBatchResumesAfterTheLastCandle() {
+		when(exchangeService.getData(eq("AAA"), eq(watermark), anyLong())).thenReturn(List.of(candle("AAA", watermark)));
+
+		klineDataIngestionService.ingest();
+
+		verify(klineDataMapper).batchInsert(List.of(candle("AAA", watermark)));
+		verify(exchangeService).getData("AAA", watermark + MINUTE, watermark + MINUTE + SPAN - 1);
+		verify(exchangeService).getData("AAA", watermark + MINUTE + SPAN, watermark + MINUTE + 2 * SPAN - 1);
+		assertEquals(watermark + MINUTE + 2 * SPAN, lastSavedWatermark("AAA"));
+	}
+
+	@Test
+	void failureMidCatchUpKeepsTheLastSavedWatermark() {
+		when(exchangeService.getData(eq("AAA"), eq(watermark + SPAN), anyLong())).thenThrow(new IllegalStateException("exchange down"));
+
+		klineDataIngestionService.ingest();
+
+		assertEquals(watermark + SPAN, lastSavedWatermark("AAA"));
+		// the rest of the group still runs
+		verify(exchangeService, times(3)).getData(eq("BBB"), anyLong(), anyLong());
+
+		when(exchangeService.getData(eq("AAA"), eq(watermark + SPAN), anyLong())).thenReturn(List.of());
+		klineDataIngestionService.ingest();
+
+		// the next tick retries the failed range
+		verify(exchangeService, times(2)).getData("AAA", watermark + SPAN, watermark + 2 * SPAN - 1);
+		assertEquals(watermark + 4 * SPAN, lastSavedWatermark("AAA"));
+	}
+
+	@Test
+	void maxBatchesPerTickCutsOffEachTick() {
+		klineDataIngestionService.ingest();
+		klineDataIngestionService.ingest();
+
+		verify(exchangeService, times(6)).getData(eq("AAA"), anyLong(), anyLong());
+		verify(exchangeService).getData("AAA", watermark + 5 * SPAN, watermark + 6 * SPAN - 1);
+		assertEquals(watermark + 6 * SPAN, lastSavedWatermark("AAA"));
+	}
+
+	@Test
+	void failedWatermarkLookupOnlySkipsThatSymbol() {
+		// a new symbol whose watermark is not known yet and cannot be read
+		ReflectionTestUtils.setField(klineDataIngestionService, "symbols", List.of("NEW", "BBB"));
+		when(ingestionWatermarkMapper.findWatermark(anyString(), eq("NEW"), anyString())).thenThrow(new IllegalStateException("database down"));
+
+		klineDataIngestionService.ingest();
+
+		verify(exchangeService, never()).getData(eq("NEW"), anyLong(), anyLong());
+		verify(exchangeService, times(3)).getData(eq("BBB"), anyLong(), anyLong());
+	}
+
+	private long lastSavedWatermark(String symbol) {
+		ArgumentCaptor<IngestionWatermark> saved = ArgumentCaptor.forClass(IngestionWatermark.class);
+		verify(ingestionWatermarkMapper, atLeastOnce()).upsertWatermark(saved.capture());
+		return saved.getAllValues().stream()
+				.filter(watermark -> watermark.getSymbol().equals(symbol))
+				.reduce((first, second) -> second)
+				.orElseThrow()
+				.getHighWaterMark();
+	}
+
+	private static IngestionWatermark stored(String symbol, long highWaterMark) {
+		IngestionWatermark stored = new IngestionWatermark();
+		stored.setExchangeName("Binance");
+		stored.setSymbol(symbol);
+		stored.setIntervalLabel("1m");
+		stored.setHighWaterMark(highWaterMark);
+		return stored;
+	}
+
+	private static KlineData candle(String symbol, long openTime) {
+		KlineData data = new KlineData();
+		data.setSymbol(symbol);
+		data.setOpenTime(openTime);
+		data.setCloseTime(openTime + MINUTE - 1);
+		return data;
+	}
+}
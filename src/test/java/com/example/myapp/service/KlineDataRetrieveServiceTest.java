@@ -0,0 +1,113 @@
+package com.example.myapp.service;
+
+import com.example.myapp.entity.KlineData;
+import com.example.myapp.enums.Interval;
+import com.example.myapp.mapper.KlineDataMapper;
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.myapp.KlineDataFixtures.DAY_0;
+import static com.example.myapp.KlineDataFixtures.MINUTE;
+import static com.example.myapp.KlineDataFixtures.candle;
+import static com.example.myapp.KlineDataFixtures.startRedis;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that the database aggregation used above {@code retrieve.pushdown.rowThreshold} returns exactly what the
+ * in-memory path returns, on H2 in MySQL mode and an in-process Redis.
+ */
+@ActiveProfiles("retrievetest")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class KlineDataRetrieveServiceTest {
+
+	private static final String SYMBOL = "PUSHDOWNTEST";
+
+	private static final long HOUR = 60 * MINUTE;
+
+	private static final RedisServer redis = startRedis();
+
+	@Autowired
+	private KlineDataRetrieveService klineDataRetrieveService;
+
+	@Autowired
+	private KlineDataMapper klineDataMapper;
+
+	@Autowired
+	private RedisTemplate<String, Object> redisTemplate;
+
+	@DynamicPropertySource
+	static void redisProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.data.redis.port", redis::getBindPort);
+	}
+
+	@AfterAll
+	static void stopRedis() throws IOException {
+		redis.stop();
+	}
+
+	@BeforeAll
+	void seed() {
+		// a day and three hours of 1m candles with a 90 minute gap and a missing candle at an hour boundary; the ranges
+		// below end before the last candle, so there is always a candle opening at their end time
+		List<KlineData> batch = new ArrayList<>();
+		for (int i = 0; i < 1440 + 180; i++) {
+			if ((i >= 600 && i < 690) || i == 720) {
+				continue;
+			}
+			batch.add(candle(SYMBOL, DAY_0 + i * MINUTE, i));
+			if (batch.size() == 500) {
+				klineDataMapper.batchInsert(batch);
+				batch.clear();
+			}
+		}
+		klineDataMapper.batchInsert(batch);
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			// ends at midnight, where the cache used to return the candle opening at the end time
+			"0, 86400000, 1d",
+			"0, 86400000, 1h",
+			"0, 86400000, 5m",
+			"30000, 45165000, 1h",
+			"30000, 45165000, 5m",
+			"43200000, 64800000, 5m",
+			// gap-free, so the cached retrieve does not fall back to the database
+			"0, 21600000, 1h",
+			"0, 21600000, 5m",
+	})
+	void pushdownMatchesInMemoryAggregation(long startOffset, long endOffset, String interval) {
+		long startTime = DAY_0 + startOffset;
+		long endTime = DAY_0 + endOffset;
+		long alignedStartTime = (startTime / MINUTE) * MINUTE;
+		long alignedEndTime = ((endTime + MINUTE - 1) / MINUTE) * MINUTE;
+
+		List<KlineData> pushedDown = klineDataMapper.aggregateByInterval(alignedStartTime, alignedEndTime, SYMBOL,
+				Interval.fromLabel(interval).getMilliseconds());
+		redisTemplate.delete("klineData:" + SYMBOL + ":1m");
+		List<KlineData> fromDatabase = klineDataRetrieveService.aggregation(klineDataRetrieveService.retrieveData(startTime, endTime, SYMBOL), interval);
+		// a later request caches the candles from the end time on as well
+		klineDataRetrieveService.retrieveData(alignedEndTime, alignedEndTime + 3 * HOUR, SYMBOL);
+		List<KlineData> fromCache = klineDataRetrieveService.aggregation(klineDataRetrieveService.retrieveData(startTime, endTime, SYMBOL), interval);
+
+		assertFalse(pushedDown.isEmpty());
+		assertEquals(fromDatabase, pushedDown);
+		assertEquals(fromCache, pushedDown);
+	}
+}
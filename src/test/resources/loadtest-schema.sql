@@ -0,0 +1,25 @@
+-- H2 (MySQL mode) equivalent of db/migration without the MySQL-only partitioning
+CREATE TABLE IF NOT EXISTS kline_data (
+    open_time                BIGINT         NOT NULL,
+    close_time               BIGINT         NOT NULL,
+    symbol                   VARCHAR(32)    NOT NULL,
+    open_price               DECIMAL(28, 8) NOT NULL,
+    high_price               DECIMAL(28, 8) NOT NULL,
+    low_price                DECIMAL(28, 8) NOT NULL,
+    close_price              DECIMAL(28, 8) NOT NULL,
+    volume                   DECIMAL(28, 8) NOT NULL,
+    quote_asset_volume       DECIMAL(28, 8) NOT NULL,
+    number_of_trades         INT            NOT NULL,
+    taker_buy_base_volume    DECIMAL(28, 8) NOT NULL,
+    taker_buy_quote_volume   DECIMAL(28, 8) NOT NULL,
+    PRIMARY KEY (symbol, open_time)
+);
+
+CREATE TABLE IF NOT EXISTS ingestion_watermark (
+    exchange_name   VARCHAR(32) NOT NULL,
+    symbol          VARCHAR(32) NOT NULL,
+    interval_label  VARCHAR(8)  NOT NULL,
+    high_water_mark BIGINT      NOT NULL,
+    updated_at      BIGINT      NOT NULL,
+    PRIMARY KEY (exchange_name, symbol, interval_label)
+);